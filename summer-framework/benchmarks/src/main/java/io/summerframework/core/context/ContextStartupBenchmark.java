@@ -0,0 +1,135 @@
+package io.summerframework.core.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link AnnotationApplicationContext} construction with N scanned components. The components are generated
+ * and compiled into a temporary directory when the trial starts; each component depends on the previous one
+ * through its constructor. The container is loaded through a separate class loader that sees that directory
+ * and is installed as the context class loader while a context is built, since the scanner resolves classes
+ * through it. With {@code indexed} the compilation runs the core's component index processor, so the context
+ * reads {@code META-INF/summer.components} instead of scanning the generated package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextStartupBenchmark {
+
+    private static final String GENERATED_PACKAGE = "bench.generated";
+
+    @Param({"10", "100", "500"})
+    public int components;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Path workDirectory;
+    private URLClassLoader loader;
+    private Constructor<?> contextConstructor;
+    private Class<?> configurationClass;
+
+    @Setup
+    public void setUp() throws Exception {
+        workDirectory = Files.createTempDirectory("summer-context-bench");
+        Path sources = workDirectory.resolve("src");
+        Path classes = workDirectory.resolve("classes");
+        Files.createDirectories(classes);
+        List<String> files = writeSources(sources);
+
+        Path container = Paths.get(AnnotationApplicationContext.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("ContextStartupBenchmark needs a JDK to compile its components");
+        }
+        List<String> arguments = new ArrayList<>(List.of("-d", classes.toString(), "-cp", container.toString()));
+        if (!indexed) {
+            arguments.add("-proc:none");
+        }
+        arguments.addAll(files);
+        if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Failed to compile generated components");
+        }
+
+        loader = new URLClassLoader(new URL[]{classes.toUri().toURL(), container.toUri().toURL()},
+                ClassLoader.getPlatformClassLoader());
+        contextConstructor = loader.loadClass(AnnotationApplicationContext.class.getName())
+                .getConstructor(Class[].class);
+        configurationClass = loader.loadClass("bench.BenchConfig");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loader.close();
+        try (Stream<Path> paths = Files.walk(workDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void createContext() throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try (AutoCloseable context = (AutoCloseable) contextConstructor.newInstance((Object) new Class<?>[]{configurationClass})) {
+            // construction is what is measured; closing keeps the trial from accumulating contexts
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private List<String> writeSources(Path sources) throws IOException {
+        List<String> files = new ArrayList<>();
+        Path configDirectory = Files.createDirectories(sources.resolve("bench"));
+        Path componentDirectory = Files.createDirectories(sources.resolve(GENERATED_PACKAGE.replace('.', '/')));
+
+        Path config = configDirectory.resolve("BenchConfig.java");
+        Files.writeString(config, "package bench;\n"
+                + "@io.summerframework.core.annotation.Configuration\n"
+                + "@io.summerframework.core.annotation.ComponentScan(basePackages = \"" + GENERATED_PACKAGE + "\")\n"
+                + "public class BenchConfig {}\n", StandardCharsets.UTF_8);
+        files.add(config.toString());
+
+        for (int i = 0; i < components; i++) {
+            String dependency = i == 0 ? "" : "Component" + (i - 1) + " previous";
+            Path component = componentDirectory.resolve("Component" + i + ".java");
+            Files.writeString(component, "package " + GENERATED_PACKAGE + ";\n"
+                    + "@io.summerframework.core.annotation.Component\n"
+                    + "public class Component" + i + " {\n"
+                    + "    @io.summerframework.core.annotation.Autowired\n"
+                    + "    public Component" + i + "(" + dependency + ") {}\n"
+                    + "}\n", StandardCharsets.UTF_8);
+            files.add(component.toString());
+        }
+        return files;
+    }
+}
@@ -0,0 +1,64 @@
+package io.summerframework.core.web;
+
+import io.summerframework.core.web.annotation.PathVariable;
+import io.summerframework.core.web.annotation.RequestBody;
+import io.summerframework.core.web.annotation.RequestHeader;
+import io.summerframework.core.web.annotation.RequestParam;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload types and a route target shared by the web benchmarks.
+ */
+public final class BenchmarkModels {
+
+    private BenchmarkModels() {
+    }
+
+    public record Order(long id, String customer, double total, boolean paid, List<String> tags) {
+    }
+
+    public static class OrderPojo {
+        private long id;
+        private String customer;
+        private double total;
+        private boolean paid;
+        private List<String> tags;
+    }
+
+    public static class Controller {
+
+        public String ping() {
+            return "pong";
+        }
+
+        public Object show(@PathVariable("id") long id,
+                           @RequestParam("verbose") boolean verbose,
+                           @RequestHeader("x-request-id") String requestId) {
+            return id;
+        }
+
+        public Object create(@RequestBody Order order) {
+            return order;
+        }
+    }
+
+    static Order order(int index) {
+        return new Order(index, "customer-" + index + " çğü", index * 1.25, index % 2 == 0,
+                List.of("priority", "region-" + (index % 7)));
+    }
+
+    static List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(order(i));
+        }
+        return orders;
+    }
+
+    static byte[] orderJson(int index) {
+        return new Json().stringify(order(index)).getBytes(StandardCharsets.UTF_8);
+    }
+}
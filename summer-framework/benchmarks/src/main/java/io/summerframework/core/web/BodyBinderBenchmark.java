@@ -0,0 +1,52 @@
+package io.summerframework.core.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding the same JSON body into a record, a POJO and the generic map tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyBinderBenchmark {
+
+    private final BodyBinder binder = new BodyBinder();
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = BenchmarkModels.orderJson(7);
+        binder.prepare(BenchmarkModels.Order.class);
+        binder.prepare(BenchmarkModels.OrderPojo.class);
+    }
+
+    @Benchmark
+    public Object bindRecord() {
+        return binder.bind(body, BenchmarkModels.Order.class);
+    }
+
+    @Benchmark
+    public Object bindPojo() {
+        return binder.bind(body, BenchmarkModels.OrderPojo.class);
+    }
+
+    @Benchmark
+    public Object bindMap() {
+        return binder.bind(body, Map.class);
+    }
+}
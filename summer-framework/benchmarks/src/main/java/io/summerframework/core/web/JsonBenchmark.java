@@ -0,0 +1,62 @@
+package io.summerframework.core.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing and parsing a single order ({@code small}) and a list of a thousand orders ({@code large}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"small", "large"})
+    public String payload;
+
+    private final Json json = new Json();
+    private final byte[] buffer = new byte[16 * 1024];
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        value = "small".equals(payload) ? BenchmarkModels.order(1) : BenchmarkModels.orders(1_000);
+        encoded = json.stringify(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String stringify() {
+        return json.stringify(value);
+    }
+
+    @Benchmark
+    public int writeToStream() {
+        JsonWriter writer = new JsonWriter(OutputStream.nullOutputStream(), buffer);
+        json.write(value, writer);
+        int size = writer.size();
+        writer.flush();
+        return size;
+    }
+
+    @Benchmark
+    public Object parse() {
+        return new JsonReader(encoded).readValue();
+    }
+}
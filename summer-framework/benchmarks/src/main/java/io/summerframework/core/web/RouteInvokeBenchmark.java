@@ -0,0 +1,58 @@
+package io.summerframework.core.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RouteDefinition#invoke(RouteRequest)} for a route binding a path variable, a query parameter and a
+ * header, and for a route binding a JSON body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteInvokeBenchmark {
+
+    private RouteDefinition showRoute;
+    private RouteDefinition createRoute;
+    private RouteRequest showRequest;
+    private RouteRequest createRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        BenchmarkModels.Controller controller = new BenchmarkModels.Controller();
+        BodyBinder binder = new BodyBinder();
+        showRoute = new RouteDefinition(HttpMethod.GET, "/orders/{id}", controller,
+                BenchmarkModels.Controller.class.getMethod("show", long.class, boolean.class, String.class), binder);
+        createRoute = new RouteDefinition(HttpMethod.POST, "/orders", controller,
+                BenchmarkModels.Controller.class.getMethod("create", BenchmarkModels.Order.class), binder);
+
+        Map<String, List<String>> headers = Map.of("x-request-id", List.of("req-1"));
+        showRequest = new RouteRequest(new byte[0], new String[]{"42"}, "verbose=true", headers::get);
+        createRequest = new RouteRequest(BenchmarkModels.orderJson(3), new String[0], null, name -> null);
+    }
+
+    @Benchmark
+    public Object invokeWithParameters() {
+        return showRoute.invoke(showRequest);
+    }
+
+    @Benchmark
+    public Object invokeWithBody() {
+        return createRoute.invoke(createRequest);
+    }
+}
@@ -0,0 +1,73 @@
+package io.summerframework.core.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route resolution against tables of 10, 100 and 1000 routes, half static and half with a path variable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routes;
+
+    private Router router;
+    private String staticPath;
+    private String variablePath;
+    private String missingPath;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        BenchmarkModels.Controller controller = new BenchmarkModels.Controller();
+        Method ping = BenchmarkModels.Controller.class.getMethod("ping");
+        Method show = BenchmarkModels.Controller.class.getMethod("show", long.class, boolean.class, String.class);
+        BodyBinder binder = new BodyBinder();
+
+        router = new Router();
+        for (int i = 0; i < routes; i++) {
+            if (i % 2 == 0) {
+                router.register(new RouteDefinition(HttpMethod.GET, "/api/resource" + i + "/status", controller, ping, binder));
+            } else {
+                router.register(new RouteDefinition(HttpMethod.GET, "/api/resource" + i + "/{id}", controller, show, binder));
+            }
+        }
+
+        int last = routes - 1;
+        staticPath = "/api/resource" + (last - last % 2) + "/status";
+        variablePath = "/api/resource" + (routes / 2 | 1) + "/42";
+        missingPath = "/api/unknown/42";
+    }
+
+    @Benchmark
+    public RouteMatch resolveStatic() {
+        return router.resolve("GET", staticPath);
+    }
+
+    @Benchmark
+    public RouteMatch resolveVariable() {
+        return router.resolve("GET", variablePath);
+    }
+
+    @Benchmark
+    public RouteMatch resolveMissing() {
+        return router.resolve("GET", missingPath);
+    }
+}
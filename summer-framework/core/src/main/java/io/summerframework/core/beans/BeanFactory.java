@@ -1,10 +1,19 @@
 package io.summerframework.core.beans;
 
+import java.util.Map;
+
 public interface BeanFactory {
 
     Object getBean(String name);
 
     <T> T getBean(Class<T> requiredType);
 
+    /**
+     * Every bean assignable to {@code type}, keyed by name in registration order.
+     */
+    <T> Map<String, T> getBeansOfType(Class<T> type);
+
+    <T> BeanProvider<T> getBeanProvider(Class<T> type);
+
     boolean containsBean(String name);
 }
@@ -0,0 +1,25 @@
+package io.summerframework.core.beans;
+
+import java.util.stream.Stream;
+
+/**
+ * Deferred access to the beans of one type. Candidates are fixed when the provider is created; each call
+ * returns the cached instance for singletons and a new one for prototypes.
+ */
+public interface BeanProvider<T> {
+
+    /**
+     * The only bean of this type; fails when there is none or more than one.
+     */
+    T getObject();
+
+    /**
+     * The only bean of this type, or {@code null} when there is none; fails when there is more than one.
+     */
+    T getIfAvailable();
+
+    /**
+     * All beans of this type in registration order.
+     */
+    Stream<T> stream();
+}
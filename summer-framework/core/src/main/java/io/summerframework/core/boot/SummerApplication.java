@@ -31,17 +31,25 @@ public final class SummerApplication {
 
         int port = readInt(properties, "server.port", 8080);
         ServerTuningProperties tuning = resolveTuning(properties);
+        boolean parallelStartup = Boolean.parseBoolean(readOptionalString(properties, "summer.context.parallel-startup"));
 
-        AnnotationApplicationContext context = new AnnotationApplicationContext(configurationClass);
+        AnnotationApplicationContext context = new AnnotationApplicationContext(parallelStartup, configurationClass);
         TinyRestServer server = new TinyRestServer(port, context, tuning);
 
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            server.stop();
+        Thread shutdownHook = new Thread(() -> {
+            server.stopGracefully();
             context.close();
-        }));
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
 
-        server.start();
-        return new RunningApplication(server, context);
+        try {
+            server.start();
+        } catch (RuntimeException ex) {
+            removeShutdownHook(shutdownHook);
+            context.close();
+            throw ex;
+        }
+        return new RunningApplication(server, context, shutdownHook);
     }
 
     private static Properties loadClasspathProperties(String fileName) {
@@ -129,6 +137,24 @@ public final class SummerApplication {
         Long requestTimeoutMillis = readOptionalLong(properties, "summer.server.request-timeout-millis");
         Integer socketBacklog = readOptionalInt(properties, "summer.server.socket-backlog");
         String rejectionPolicy = readOptionalString(properties, "summer.server.rejection-policy");
+        String engine = readOptionalString(properties, "summer.server.engine");
+        Integer eventLoopThreads = readOptionalInt(properties, "summer.server.event-loop-threads");
+        String executionModel = readOptionalString(properties, "summer.server.execution-model");
+        String concurrencyLimit = readOptionalString(properties, "summer.server.concurrency-limit");
+        Integer minConcurrentRequests = readOptionalInt(properties, "summer.server.min-concurrent-requests");
+        String metricsPath = readOptionalString(properties, "summer.server.metrics-path");
+        Integer maxConnections = readOptionalInt(properties, "summer.server.max-connections");
+        Long idleTimeoutMillis = readOptionalLong(properties, "summer.server.idle-timeout-millis");
+        Integer maxRequestsPerConnection = readOptionalInt(properties, "summer.server.max-requests-per-connection");
+        Long drainTimeoutMillis = readOptionalLong(properties, "summer.server.drain-timeout-millis");
+        String compressionEnabled = readOptionalString(properties, "summer.server.compression.enabled");
+        Integer compressionMinResponseSize = readOptionalInt(properties, "summer.server.compression.min-response-size");
+        Integer compressionLevel = readOptionalInt(properties, "summer.server.compression.level");
+        String staticLocation = readOptionalString(properties, "summer.server.static.location");
+        String staticPath = readOptionalString(properties, "summer.server.static.path");
+        Integer sseMaxStreams = readOptionalInt(properties, "summer.server.sse.max-streams");
+        Long sseHeartbeatMillis = readOptionalLong(properties, "summer.server.sse.heartbeat-millis");
+        Integer maxRequestBodyBytes = readOptionalInt(properties, "summer.server.max-request-body-bytes");
 
         if (coreThreads != null) {
             builder.coreThreads(coreThreads);
@@ -154,6 +180,60 @@ public final class SummerApplication {
         if (rejectionPolicy != null) {
             builder.rejectionPolicy(ServerTuningProperties.RejectionPolicy.valueOf(rejectionPolicy.toUpperCase(Locale.ROOT)));
         }
+        if (engine != null) {
+            builder.engine(ServerTuningProperties.Engine.valueOf(engine.toUpperCase(Locale.ROOT)));
+        }
+        if (eventLoopThreads != null) {
+            builder.eventLoopThreads(eventLoopThreads);
+        }
+        if (executionModel != null) {
+            builder.executionModel(ServerTuningProperties.ExecutionModel.valueOf(executionModel.toUpperCase(Locale.ROOT)));
+        }
+        if (concurrencyLimit != null) {
+            builder.concurrencyLimit(ServerTuningProperties.ConcurrencyLimit.valueOf(concurrencyLimit.toUpperCase(Locale.ROOT)));
+        }
+        if (minConcurrentRequests != null) {
+            builder.minConcurrentRequests(minConcurrentRequests);
+        }
+        if (metricsPath != null) {
+            builder.metricsPath(metricsPath);
+        }
+        if (maxConnections != null) {
+            builder.maxConnections(maxConnections);
+        }
+        if (idleTimeoutMillis != null) {
+            builder.idleTimeoutMillis(idleTimeoutMillis);
+        }
+        if (maxRequestsPerConnection != null) {
+            builder.maxRequestsPerConnection(maxRequestsPerConnection);
+        }
+        if (drainTimeoutMillis != null) {
+            builder.drainTimeoutMillis(drainTimeoutMillis);
+        }
+        if (compressionEnabled != null) {
+            builder.compressionEnabled(Boolean.parseBoolean(compressionEnabled));
+        }
+        if (compressionMinResponseSize != null) {
+            builder.compressionMinResponseSize(compressionMinResponseSize);
+        }
+        if (compressionLevel != null) {
+            builder.compressionLevel(compressionLevel);
+        }
+        if (staticLocation != null) {
+            builder.staticLocation(staticLocation);
+        }
+        if (staticPath != null) {
+            builder.staticPath(staticPath);
+        }
+        if (sseMaxStreams != null) {
+            builder.sseMaxStreams(sseMaxStreams);
+        }
+        if (sseHeartbeatMillis != null) {
+            builder.sseHeartbeatMillis(sseHeartbeatMillis);
+        }
+        if (maxRequestBodyBytes != null) {
+            builder.maxRequestBodyBytes(maxRequestBodyBytes);
+        }
 
         return builder.build();
     }
@@ -202,9 +282,30 @@ public final class SummerApplication {
         return value.trim();
     }
 
-    public record RunningApplication(TinyRestServer server, AnnotationApplicationContext context) implements AutoCloseable {
+    private static void removeShutdownHook(Thread shutdownHook) {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ex) {
+            // the JVM is already shutting down and the hook is running or has run
+        }
+    }
+
+    public record RunningApplication(TinyRestServer server, AnnotationApplicationContext context, Thread shutdownHook)
+            implements AutoCloseable {
+
+        public RunningApplication(TinyRestServer server, AnnotationApplicationContext context) {
+            this(server, context, null);
+        }
+
+        /**
+         * Stops the server and closes the context, and unregisters the shutdown hook so that repeated
+         * start/close cycles in one JVM do not pile up hooks that keep stopped servers reachable.
+         */
         @Override
         public void close() {
+            if (shutdownHook != null) {
+                removeShutdownHook(shutdownHook);
+            }
             server.stop();
             context.close();
         }
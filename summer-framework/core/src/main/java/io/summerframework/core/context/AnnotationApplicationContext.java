@@ -8,6 +8,7 @@ import io.summerframework.core.annotation.Configuration;
 import io.summerframework.core.annotation.Scope;
 import io.summerframework.core.beans.BeanDefinition;
 import io.summerframework.core.beans.BeanFactory;
+import io.summerframework.core.beans.BeanProvider;
 import io.summerframework.core.lifecycle.BeanNameAware;
 import io.summerframework.core.lifecycle.BeanPostProcessor;
 import io.summerframework.core.lifecycle.DisposableBean;
@@ -19,15 +20,28 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 public class AnnotationApplicationContext implements BeanFactory, AutoCloseable {
 
@@ -35,16 +49,30 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
     private static final String PROTOTYPE = "prototype";
 
     private final Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<>();
-    private final Map<String, Object> singletonObjects = new HashMap<>();
-    private final Set<String> beansInCreation = new HashSet<>();
+    private final Map<Class<?>, List<String>> beanNamesByType = new HashMap<>();
+    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> singletonCreationLocks = new HashMap<>();
+    private final ThreadLocal<Set<String>> beansInCreation = new ThreadLocal<>();
+    private final List<String> singletonCreationOrder = Collections.synchronizedList(new ArrayList<>());
     private final List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
     private final ClassPathScanner scanner = new ClassPathScanner();
+    private final boolean parallelStartup;
+    private volatile boolean closed;
 
     public AnnotationApplicationContext(Class<?>... configurationClasses) {
+        this(false, configurationClasses);
+    }
+
+    /**
+     * @param parallelStartup create singletons that do not depend on each other concurrently during
+     *                        {@link #refresh()}, on a pool with one thread per available processor
+     */
+    public AnnotationApplicationContext(boolean parallelStartup, Class<?>... configurationClasses) {
         if (configurationClasses == null || configurationClasses.length == 0) {
             throw new IllegalArgumentException("At least one @Configuration class is required");
         }
 
+        this.parallelStartup = parallelStartup;
         registerConfigurationAndScannedComponents(configurationClasses);
         refresh();
     }
@@ -127,8 +155,46 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
             throw new IllegalStateException("Duplicate bean name detected: " + definition.getName());
         }
         beanDefinitions.put(definition.getName(), definition);
+        if (definition.isSingleton()) {
+            singletonCreationLocks.put(definition.getName(), new ReentrantLock());
+        }
+        indexBeanType(definition.getName(), definition.getBeanClass());
     }
 
+    /**
+     * Adds {@code beanName} under its class and every superclass and interface it has, so a lookup by any type
+     * the bean is assignable to is one map access.
+     */
+    private void indexBeanType(String beanName, Class<?> beanClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(beanClass);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            if (!types.add(type)) {
+                continue;
+            }
+            if (type.getSuperclass() != null) {
+                pending.push(type.getSuperclass());
+            }
+            for (Class<?> implemented : type.getInterfaces()) {
+                pending.push(implemented);
+            }
+        }
+        if (beanClass.isInterface()) {
+            types.add(Object.class);
+        }
+        for (Class<?> type : types) {
+            beanNamesByType.computeIfAbsent(type, key -> new ArrayList<>()).add(beanName);
+        }
+    }
+
+    /**
+     * Creates the bean post-processors, then every singleton. The dependency graph is built first and every bean
+     * reachable from those is checked for cycles; singletons are created dependencies first, in the order
+     * recursive lookups would create them, and with parallel startup each one starts as soon as the singletons
+     * it needs exist. Destruction in {@link #close()} runs in the reverse of that order either way.
+     */
     public void refresh() {
         List<String> processorBeanNames = new ArrayList<>();
         for (BeanDefinition definition : beanDefinitions.values()) {
@@ -137,20 +203,148 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
             }
         }
 
+        BeanDependencyGraph graph = buildDependencyGraph();
+        // prototypes only count where an eagerly created bean needs them; a cycle among prototypes alone
+        // fails when one of them is requested, as before
+        List<String> roots = new ArrayList<>(processorBeanNames);
+        for (BeanDefinition definition : beanDefinitions.values()) {
+            if (definition.isSingleton()) {
+                roots.add(definition.getName());
+            }
+        }
+        List<String> creationOrder = graph.creationOrder(roots);
+
         for (String beanName : processorBeanNames) {
             BeanPostProcessor processor = (BeanPostProcessor) getBean(beanName);
             beanPostProcessors.add(processor);
         }
 
+        if (parallelStartup) {
+            createSingletonsInParallel(graph, creationOrder);
+            return;
+        }
+        for (String beanName : creationOrder) {
+            if (beanDefinitions.get(beanName).isSingleton()) {
+                getBean(beanName);
+            }
+        }
+    }
+
+    private BeanDependencyGraph buildDependencyGraph() {
+        BeanDependencyGraph graph = new BeanDependencyGraph();
         for (BeanDefinition definition : beanDefinitions.values()) {
-            if (definition.isSingleton()) {
-                getBean(definition.getName());
+            List<Class<?>> dependencyTypes = new ArrayList<>();
+            if (definition.isFactoryMethodBean()) {
+                dependencyTypes.add(definition.getConfigurationClass());
+                dependencyTypes.addAll(Arrays.asList(definition.getFactoryMethod().getParameterTypes()));
+            } else {
+                dependencyTypes.addAll(Arrays.asList(resolveConstructor(definition.getBeanClass()).getParameterTypes()));
+            }
+            for (Class<?> current = definition.getBeanClass(); current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(Autowired.class)) {
+                        dependencyTypes.add(field.getType());
+                    }
+                }
             }
+
+            Set<String> dependencies = new LinkedHashSet<>();
+            for (Class<?> type : dependencyTypes) {
+                List<String> candidates = beanNamesForType(type);
+                // missing or ambiguous dependencies fail with the usual message when the bean is created
+                if (candidates.size() == 1) {
+                    dependencies.add(candidates.get(0));
+                }
+            }
+            graph.add(definition.getName(), new ArrayList<>(dependencies));
         }
+        return graph;
+    }
+
+    private void createSingletonsInParallel(BeanDependencyGraph graph, List<String> creationOrder) {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                startupThreadFactory(Thread.currentThread().getContextClassLoader()), null, false);
+        Map<String, CompletableFuture<Void>> creations = new LinkedHashMap<>();
+        try {
+            for (String beanName : creationOrder) {
+                if (!beanDefinitions.get(beanName).isSingleton() || singletonObjects.containsKey(beanName)) {
+                    continue;
+                }
+                CompletableFuture<?>[] dependencies = singletonDependencies(beanName, graph).stream()
+                        .map(creations::get)
+                        .filter(Objects::nonNull)
+                        .toArray(CompletableFuture<?>[]::new);
+                creations.put(beanName, CompletableFuture.allOf(dependencies).thenRunAsync(() -> getBean(beanName), pool));
+            }
+            CompletableFuture.allOf(creations.values().toArray(CompletableFuture<?>[]::new))
+                    .exceptionally(failure -> null)
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+
+        for (CompletableFuture<Void> creation : creations.values()) {
+            if (creation.isCompletedExceptionally()) {
+                try {
+                    creation.join();
+                } catch (CompletionException ex) {
+                    if (ex.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (ex.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw ex;
+                }
+            }
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        for (String beanName : creationOrder) {
+            positions.put(beanName, positions.size());
+        }
+        synchronized (singletonCreationOrder) {
+            singletonCreationOrder.sort(Comparator.comparingInt(positions::get));
+        }
+    }
+
+    /**
+     * Singletons {@code beanName} needs before it can be created, looking through prototypes, which are created
+     * along with the bean that asks for them.
+     */
+    private Set<String> singletonDependencies(String beanName, BeanDependencyGraph graph) {
+        Set<String> singletons = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(graph.dependenciesOf(beanName));
+        while (!pending.isEmpty()) {
+            String dependency = pending.pop();
+            if (!visited.add(dependency)) {
+                continue;
+            }
+            if (beanDefinitions.get(dependency).isSingleton()) {
+                singletons.add(dependency);
+            } else {
+                pending.addAll(graph.dependenciesOf(dependency));
+            }
+        }
+        return singletons;
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory startupThreadFactory(ClassLoader classLoader) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("summer-startup-" + threadNumber.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        };
     }
 
     @Override
     public Object getBean(String name) {
+        if (closed) {
+            throw new IllegalStateException("Application context is closed");
+        }
         BeanDefinition definition = beanDefinitions.get(name);
         if (definition == null) {
             throw new IllegalStateException("No bean named '" + name + "' is defined");
@@ -170,14 +364,46 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
     @SuppressWarnings("unchecked")
     @Override
     public <T> T getBean(Class<T> requiredType) {
-        List<String> matches = new ArrayList<>();
-        for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
-            if (requiredType.isAssignableFrom(entry.getValue().getBeanClass())) {
-                matches.add(entry.getKey());
+        return (T) getBean(uniqueBeanName(requiredType, beanNamesForType(requiredType), true));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Map<String, T> getBeansOfType(Class<T> type) {
+        Map<String, T> beans = new LinkedHashMap<>();
+        for (String beanName : beanNamesForType(type)) {
+            beans.put(beanName, (T) getBean(beanName));
+        }
+        return beans;
+    }
+
+    @Override
+    public <T> BeanProvider<T> getBeanProvider(Class<T> type) {
+        return new TypeBeanProvider<>(type, beanNamesForType(type));
+    }
+
+    private List<String> beanNamesForType(Class<?> requiredType) {
+        if (closed) {
+            throw new IllegalStateException("Application context is closed");
+        }
+        if (requiredType.isArray()) {
+            // array types are covariant, which the index does not record
+            List<String> matches = new ArrayList<>();
+            for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
+                if (requiredType.isAssignableFrom(entry.getValue().getBeanClass())) {
+                    matches.add(entry.getKey());
+                }
             }
+            return matches;
         }
+        return beanNamesByType.getOrDefault(requiredType, List.of());
+    }
 
+    private static String uniqueBeanName(Class<?> requiredType, List<String> matches, boolean required) {
         if (matches.isEmpty()) {
+            if (!required) {
+                return null;
+            }
             throw new IllegalStateException("No bean found for type: " + requiredType.getName());
         }
 
@@ -185,7 +411,7 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
             throw new IllegalStateException("Multiple beans found for type " + requiredType.getName() + ": " + matches);
         }
 
-        return (T) getBean(matches.get(0));
+        return matches.get(0);
     }
 
     @Override
@@ -205,18 +431,45 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
         return definition.getBeanClass();
     }
 
+    /**
+     * Creates a singleton at most once. Callers that find it missing queue on that bean's own lock, so lookups
+     * of existing singletons never lock and creating one bean never blocks lookups of another. Beans in
+     * creation are tracked per thread: a thread asking again for a bean it is still building has a cycle, while
+     * another thread asking for it just waits for the result. A {@link ReentrantLock} rather than
+     * {@code synchronized} keeps virtual request threads from pinning their carrier while a bean initializes.
+     */
     private Object createAndCacheSingleton(String beanName, BeanDefinition definition) {
-        if (beansInCreation.contains(beanName)) {
+        Set<String> inCreation = beansInCreation.get();
+        if (inCreation != null && inCreation.contains(beanName)) {
             throw new IllegalStateException("Circular dependency detected while creating: " + beanName);
         }
 
-        beansInCreation.add(beanName);
+        ReentrantLock lock = singletonCreationLocks.get(beanName);
+        lock.lock();
         try {
-            Object bean = createBean(beanName, definition);
-            singletonObjects.put(beanName, bean);
-            return bean;
+            Object existing = singletonObjects.get(beanName);
+            if (existing != null) {
+                return existing;
+            }
+
+            if (inCreation == null) {
+                inCreation = new HashSet<>();
+                beansInCreation.set(inCreation);
+            }
+            inCreation.add(beanName);
+            try {
+                Object bean = createBean(beanName, definition);
+                singletonObjects.put(beanName, bean);
+                singletonCreationOrder.add(beanName);
+                return bean;
+            } finally {
+                inCreation.remove(beanName);
+                if (inCreation.isEmpty()) {
+                    beansInCreation.remove();
+                }
+            }
         } finally {
-            beansInCreation.remove(beanName);
+            lock.unlock();
         }
     }
 
@@ -340,16 +593,57 @@ public class AnnotationApplicationContext implements BeanFactory, AutoCloseable
         return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
     }
 
+    /**
+     * Destroys the singletons in reverse creation order. Lookups fail from here on; the definitions, the type
+     * index, the post-processors and the per-bean creation locks are read-only after refresh and are kept, so
+     * that a lookup already past that check never iterates a map or list that is being cleared.
+     */
     @Override
     public void close() {
-        Collection<Object> beans = new ArrayList<>(singletonObjects.values());
-        for (Object bean : beans) {
-            if (bean instanceof DisposableBean disposableBean) {
+        closed = true;
+        List<String> destructionOrder;
+        synchronized (singletonCreationOrder) {
+            destructionOrder = new ArrayList<>(singletonCreationOrder);
+        }
+        Collections.reverse(destructionOrder);
+        for (String beanName : destructionOrder) {
+            if (singletonObjects.get(beanName) instanceof DisposableBean disposableBean) {
                 disposableBean.destroy();
             }
         }
+        singletonCreationOrder.clear();
         singletonObjects.clear();
-        beanPostProcessors.clear();
-        beanDefinitions.clear();
+    }
+
+    private final class TypeBeanProvider<T> implements BeanProvider<T> {
+
+        private final Class<T> type;
+        private final List<String> beanNames;
+
+        private TypeBeanProvider(Class<T> type, List<String> beanNames) {
+            this.type = type;
+            this.beanNames = List.copyOf(beanNames);
+        }
+
+        @Override
+        public T getObject() {
+            return bean(uniqueBeanName(type, beanNames, true));
+        }
+
+        @Override
+        public T getIfAvailable() {
+            String beanName = uniqueBeanName(type, beanNames, false);
+            return beanName == null ? null : bean(beanName);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return beanNames.stream().map(this::bean);
+        }
+
+        @SuppressWarnings("unchecked")
+        private T bean(String beanName) {
+            return (T) getBean(beanName);
+        }
     }
 }
@@ -0,0 +1,60 @@
+package io.summerframework.core.context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependencies between bean definitions, resolved by type from constructor and factory method parameters and
+ * {@code @Autowired} fields before any bean is created.
+ */
+final class BeanDependencyGraph {
+
+    private final Map<String, List<String>> dependencies = new HashMap<>();
+
+    void add(String beanName, List<String> dependsOn) {
+        dependencies.put(beanName, List.copyOf(dependsOn));
+    }
+
+    List<String> dependenciesOf(String beanName) {
+        return dependencies.getOrDefault(beanName, List.of());
+    }
+
+    /**
+     * Depth-first post-order from {@code roots}: every bean follows the beans it depends on, in the same order
+     * recursive creation visits them.
+     *
+     * @throws IllegalStateException if the dependencies contain a cycle
+     */
+    List<String> creationOrder(Iterable<String> roots) {
+        Set<String> order = new LinkedHashSet<>();
+        List<String> path = new ArrayList<>();
+        Set<String> onPath = new HashSet<>();
+        for (String root : roots) {
+            visit(root, order, path, onPath);
+        }
+        return new ArrayList<>(order);
+    }
+
+    private void visit(String beanName, Set<String> order, List<String> path, Set<String> onPath) {
+        if (order.contains(beanName)) {
+            return;
+        }
+        if (!onPath.add(beanName)) {
+            List<String> cycle = new ArrayList<>(path.subList(path.indexOf(beanName), path.size()));
+            cycle.add(beanName);
+            throw new IllegalStateException("Circular dependency detected: " + String.join(" -> ", cycle));
+        }
+        path.add(beanName);
+        for (String dependency : dependenciesOf(beanName)) {
+            visit(dependency, order, path, onPath);
+        }
+        path.remove(path.size() - 1);
+        onPath.remove(beanName);
+        order.add(beanName);
+    }
+}
@@ -0,0 +1,176 @@
+package io.summerframework.core.context;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the class-level {@code RuntimeVisibleAnnotations} of a class file without loading it. The constant
+ * pool is checked first: a class that does not mention any of the annotation descriptors is rejected before
+ * its fields, methods and attributes are walked.
+ */
+final class ClassFileAnnotations {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS =
+            "RuntimeVisibleAnnotations".getBytes(StandardCharsets.US_ASCII);
+
+    private ClassFileAnnotations() {
+    }
+
+    /**
+     * Descriptor bytes ({@code Lpkg/Name;}) of the given annotation types, as they appear in a constant pool.
+     */
+    static List<byte[]> descriptors(Class<?>... annotationTypes) {
+        return Arrays.stream(annotationTypes)
+                .map(type -> ('L' + type.getName().replace('.', '/') + ';').getBytes(StandardCharsets.US_ASCII))
+                .toList();
+    }
+
+    /**
+     * Whether the class in {@code classFile} is directly annotated with one of {@code descriptors}.
+     *
+     * @throws IllegalArgumentException if {@code classFile} is not a well-formed class file
+     */
+    static boolean isAnnotatedWithAny(byte[] classFile, List<byte[]> descriptors) {
+        try {
+            return read(ByteBuffer.wrap(classFile), descriptors);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated class file", ex);
+        }
+    }
+
+    private static boolean read(ByteBuffer buffer, List<byte[]> descriptors) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+        buffer.position(buffer.position() + 4);
+
+        int poolCount = buffer.getShort() & 0xFFFF;
+        int[] utf8Offsets = new int[poolCount];
+        boolean mentioned = false;
+        for (int index = 1; index < poolCount; index++) {
+            int tag = buffer.get();
+            switch (tag) {
+                case 1 -> {
+                    utf8Offsets[index] = buffer.position();
+                    int length = buffer.getShort() & 0xFFFF;
+                    if (!mentioned && matchesAny(buffer, buffer.position(), length, descriptors)) {
+                        mentioned = true;
+                    }
+                    buffer.position(buffer.position() + length);
+                }
+                case 7, 8, 16, 19, 20 -> buffer.position(buffer.position() + 2);
+                case 15 -> buffer.position(buffer.position() + 3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> buffer.position(buffer.position() + 4);
+                case 5, 6 -> {
+                    buffer.position(buffer.position() + 8);
+                    index++;
+                }
+                default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+            }
+        }
+        if (!mentioned) {
+            return false;
+        }
+
+        buffer.position(buffer.position() + 6);
+        int interfaces = buffer.getShort() & 0xFFFF;
+        buffer.position(buffer.position() + interfaces * 2);
+        skipMembers(buffer);
+        skipMembers(buffer);
+
+        int attributes = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < attributes; i++) {
+            int nameIndex = buffer.getShort() & 0xFFFF;
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            if (utf8Equals(buffer, utf8Offsets[nameIndex], RUNTIME_VISIBLE_ANNOTATIONS)) {
+                int annotations = buffer.getShort() & 0xFFFF;
+                for (int a = 0; a < annotations; a++) {
+                    int typeIndex = buffer.getShort() & 0xFFFF;
+                    for (byte[] descriptor : descriptors) {
+                        if (utf8Equals(buffer, utf8Offsets[typeIndex], descriptor)) {
+                            return true;
+                        }
+                    }
+                    skipElementValuePairs(buffer);
+                }
+                return false;
+            }
+            buffer.position(end);
+        }
+        return false;
+    }
+
+    private static void skipMembers(ByteBuffer buffer) {
+        int members = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < members; i++) {
+            buffer.position(buffer.position() + 6);
+            int attributes = buffer.getShort() & 0xFFFF;
+            for (int a = 0; a < attributes; a++) {
+                buffer.position(buffer.position() + 2);
+                int length = buffer.getInt();
+                buffer.position(buffer.position() + length);
+            }
+        }
+    }
+
+    private static void skipElementValuePairs(ByteBuffer buffer) {
+        int pairs = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairs; i++) {
+            buffer.position(buffer.position() + 2);
+            skipElementValue(buffer);
+        }
+    }
+
+    private static void skipElementValue(ByteBuffer buffer) {
+        int tag = buffer.get();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> buffer.position(buffer.position() + 2);
+            case 'e' -> buffer.position(buffer.position() + 4);
+            case '@' -> {
+                buffer.position(buffer.position() + 2);
+                skipElementValuePairs(buffer);
+            }
+            case '[' -> {
+                int values = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < values; i++) {
+                    skipElementValue(buffer);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown annotation element tag " + (char) tag);
+        }
+    }
+
+    private static boolean utf8Equals(ByteBuffer buffer, int offset, byte[] expected) {
+        if (offset == 0) {
+            return false;
+        }
+        int length = buffer.getShort(offset) & 0xFFFF;
+        return matches(buffer, offset + 2, length, expected);
+    }
+
+    private static boolean matchesAny(ByteBuffer buffer, int from, int length, List<byte[]> candidates) {
+        for (byte[] candidate : candidates) {
+            if (matches(buffer, from, length, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int from, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
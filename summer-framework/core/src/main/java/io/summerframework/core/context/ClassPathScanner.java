@@ -1,64 +1,182 @@
 package io.summerframework.core.context;
 
-import java.io.File;
+import io.summerframework.core.annotation.Component;
+import io.summerframework.core.web.annotation.RestController;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
+import java.net.URLConnection;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
+/**
+ * Finds candidate component classes below a package. Classpath roots that carry a {@link ComponentIndex} are
+ * read from it; directories and jars without one are listed and each class file's annotations are read from
+ * its bytes, so only {@code @Component} and {@code @RestController} classes get loaded. Directory trees are
+ * walked in parallel on the common pool. Classes are loaded without running their static initializers and are
+ * returned ordered by name.
+ */
 final class ClassPathScanner {
 
+    private static final List<byte[]> CANDIDATE_ANNOTATIONS =
+            ClassFileAnnotations.descriptors(Component.class, RestController.class);
+
+    private ComponentIndex index;
+
     Set<Class<?>> scan(String basePackage) {
-        Set<Class<?>> classes = new HashSet<>();
         String path = basePackage.replace('.', '/');
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (index == null) {
+            index = ComponentIndex.load(classLoader);
+        }
 
+        Map<String, Class<?>> classes = new TreeMap<>();
+        Set<String> scanned = new ConcurrentSkipListSet<>();
         try {
-            Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(path);
+            Enumeration<URL> resources = classLoader.getResources(path);
             while (resources.hasMoreElements()) {
                 URL resource = resources.nextElement();
-                if (!"file".equals(resource.getProtocol())) {
+                List<String> indexed = index.typesUnder(ComponentIndex.rootOf(resource, path), basePackage);
+                if (indexed != null) {
+                    for (String className : indexed) {
+                        classes.put(className, loadIndexed(className, classLoader));
+                    }
                     continue;
                 }
-                String decodedPath = URLDecoder.decode(resource.getPath(), StandardCharsets.UTF_8);
-                File directory = new File(decodedPath);
-                collectClasses(directory, basePackage, classes);
+                switch (resource.getProtocol()) {
+                    case "file" -> ForkJoinPool.commonPool()
+                            .invoke(new DirectoryScan(Paths.get(resource.toURI()), basePackage, scanned));
+                    case "jar" -> scanJar(resource, scanned);
+                    default -> {
+                        // no way to list entries of other URL types
+                    }
+                }
             }
-        } catch (IOException ex) {
+        } catch (IOException | UncheckedIOException | URISyntaxException ex) {
             throw new IllegalStateException("Failed to scan package: " + basePackage, ex);
         }
 
-        return classes;
+        for (String className : scanned) {
+            classes.computeIfAbsent(className, name -> load(name, classLoader));
+        }
+        return new LinkedHashSet<>(classes.values());
     }
 
-    private void collectClasses(File directory, String packageName, Set<Class<?>> classes) {
-        if (!directory.exists() || !directory.isDirectory()) {
+    private static void scanJar(URL resource, Set<String> classNames) throws IOException {
+        URLConnection connection = resource.openConnection();
+        if (!(connection instanceof JarURLConnection jarConnection)) {
             return;
         }
+        jarConnection.setUseCaches(false);
+        String prefix = jarConnection.getEntryName() == null ? "" : jarConnection.getEntryName();
+        if (!prefix.isEmpty() && !prefix.endsWith("/")) {
+            prefix += '/';
+        }
+        try (JarFile jar = jarConnection.getJarFile()) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.startsWith(prefix)
+                        || !isClassFileName(name.substring(name.lastIndexOf('/') + 1))) {
+                    continue;
+                }
+                byte[] classFile;
+                try (InputStream inputStream = jar.getInputStream(entry)) {
+                    classFile = inputStream.readAllBytes();
+                }
+                if (isCandidate(classFile, name)) {
+                    classNames.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                }
+            }
+        }
+    }
 
-        File[] files = directory.listFiles();
-        if (files == null) {
-            return;
+    private static boolean isClassFileName(String fileName) {
+        // nested classes are not components; module-info and package-info are not classes
+        return fileName.endsWith(".class") && fileName.indexOf('$') < 0 && fileName.indexOf('-') < 0;
+    }
+
+    private static boolean isCandidate(byte[] classFile, String location) {
+        try {
+            return ClassFileAnnotations.isAnnotatedWithAny(classFile, CANDIDATE_ANNOTATIONS);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Could not read class file " + location + ": " + ex.getMessage(), ex);
         }
+    }
 
-        for (File file : files) {
-            if (file.isDirectory()) {
-                collectClasses(file, packageName + "." + file.getName(), classes);
-                continue;
-            }
+    private static Class<?> load(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Could not load class: " + className, ex);
+        }
+    }
 
-            if (!file.getName().endsWith(".class") || file.getName().contains("$")) {
-                continue;
-            }
+    private static Class<?> loadIndexed(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Indexed component class not found, rebuild to refresh "
+                    + ComponentIndex.LOCATION + ": " + className, ex);
+        }
+    }
 
-            String className = packageName + '.' + file.getName().substring(0, file.getName().length() - 6);
-            try {
-                classes.add(Class.forName(className));
-            } catch (ClassNotFoundException ex) {
-                throw new IllegalStateException("Could not load class: " + className, ex);
+    /**
+     * Lists one directory, checks its class files and forks a task per subdirectory.
+     */
+    private static final class DirectoryScan extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        private final String packageName;
+        private final Set<String> classNames;
+
+        private DirectoryScan(Path directory, String packageName, Set<String> classNames) {
+            this.directory = directory;
+            this.packageName = packageName;
+            this.classNames = classNames;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryScan> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    String fileName = entry.getFileName().toString();
+                    if (Files.isDirectory(entry)) {
+                        subdirectories.add(new DirectoryScan(entry, qualify(fileName), classNames));
+                    } else if (isClassFileName(fileName) && isCandidate(Files.readAllBytes(entry), entry.toString())) {
+                        classNames.add(qualify(fileName.substring(0, fileName.length() - 6)));
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
             }
+            invokeAll(subdirectories);
+        }
+
+        private String qualify(String simpleName) {
+            return packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
         }
     }
 }
@@ -0,0 +1,101 @@
+package io.summerframework.core.context;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Component types listed at build time by {@link ComponentIndexProcessor}, grouped by the classpath root (a
+ * directory or jar) that carries each index file. A root with an index is never scanned; its list is taken as
+ * complete.
+ */
+final class ComponentIndex {
+
+    static final String LOCATION = "META-INF/summer.components";
+
+    private final Map<String, List<String>> typesByRoot;
+
+    private ComponentIndex(Map<String, List<String>> typesByRoot) {
+        this.typesByRoot = typesByRoot;
+    }
+
+    static ComponentIndex load(ClassLoader classLoader) {
+        Map<String, List<String>> typesByRoot = new HashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                String location = resource.toExternalForm();
+                typesByRoot.put(location.substring(0, location.length() - LOCATION.length()), read(resource));
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to read component index " + LOCATION, ex);
+        }
+        return new ComponentIndex(typesByRoot);
+    }
+
+    /**
+     * Root of the classpath entry a package directory was found in, ending with {@code '/'}; {@code null} if
+     * {@code packageResource} does not end with {@code packagePath}.
+     */
+    static String rootOf(URL packageResource, String packagePath) {
+        String location = packageResource.toExternalForm();
+        if (location.endsWith("/")) {
+            location = location.substring(0, location.length() - 1);
+        }
+        if (packagePath.isEmpty()) {
+            return location + "/";
+        }
+        if (!location.endsWith("/" + packagePath)) {
+            return null;
+        }
+        return location.substring(0, location.length() - packagePath.length());
+    }
+
+    /**
+     * Indexed types in {@code basePackage} or below it under {@code root}, or {@code null} when that root has no
+     * index and has to be scanned.
+     */
+    List<String> typesUnder(String root, String basePackage) {
+        List<String> types = root != null ? typesByRoot.get(root) : null;
+        if (types == null) {
+            return null;
+        }
+        if (basePackage.isEmpty()) {
+            return types;
+        }
+        String prefix = basePackage + '.';
+        List<String> matching = new ArrayList<>();
+        for (String type : types) {
+            if (type.startsWith(prefix)) {
+                matching.add(type);
+            }
+        }
+        return matching;
+    }
+
+    private static List<String> read(URL resource) throws IOException {
+        List<String> types = new ArrayList<>();
+        URLConnection connection = resource.openConnection();
+        connection.setUseCaches(false);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String type = line.trim();
+                if (!type.isEmpty() && !type.startsWith("#")) {
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+}
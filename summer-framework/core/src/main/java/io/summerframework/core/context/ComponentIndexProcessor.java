@@ -0,0 +1,122 @@
+package io.summerframework.core.context;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes {@code META-INF/summer.components} with every top-level class annotated with {@code @Component},
+ * {@code @RestController} or {@code @Configuration} in the compilation, so the context can skip classpath
+ * scanning for that output. Picked up by {@code javac} through {@code META-INF/services} when the core jar is
+ * on the processor path. Entries from an earlier index are kept while their class still exists and is still
+ * annotated, which keeps incremental builds that recompile only part of the sources complete.
+ */
+@SupportedAnnotationTypes({
+        ComponentIndexProcessor.COMPONENT,
+        ComponentIndexProcessor.CONFIGURATION,
+        ComponentIndexProcessor.REST_CONTROLLER})
+public final class ComponentIndexProcessor extends AbstractProcessor {
+
+    static final String COMPONENT = "io.summerframework.core.annotation.Component";
+    static final String CONFIGURATION = "io.summerframework.core.annotation.Configuration";
+    static final String REST_CONTROLLER = "io.summerframework.core.web.annotation.RestController";
+
+    private static final Set<String> INDEXED_ANNOTATIONS = Set.of(COMPONENT, CONFIGURATION, REST_CONTROLLER);
+
+    private final Set<String> types = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        if (roundEnvironment.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if (isIndexable(element)) {
+                    types.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        if (types.isEmpty()) {
+            return;
+        }
+        mergePreviousIndex();
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+            try (Writer writer = index.openWriter()) {
+                for (String type : types) {
+                    writer.write(type);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + ComponentIndex.LOCATION + ", components will be scanned: " + ex.getMessage());
+        }
+    }
+
+    private void mergePreviousIndex() {
+        FileObject previous;
+        try {
+            previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+        } catch (IOException | IllegalArgumentException ex) {
+            return;
+        }
+        try (Reader reader = previous.openReader(true);
+             BufferedReader lines = new BufferedReader(reader)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                String type = line.trim();
+                if (type.isEmpty() || type.startsWith("#") || types.contains(type)) {
+                    continue;
+                }
+                TypeElement element = processingEnv.getElementUtils().getTypeElement(type);
+                if (element != null && isIndexable(element)) {
+                    types.add(type);
+                }
+            }
+        } catch (IOException ex) {
+            // no earlier index in this output directory
+        }
+    }
+
+    private static boolean isIndexable(Element element) {
+        if (element.getKind() != ElementKind.CLASS
+                || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+            return false;
+        }
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element type = annotation.getAnnotationType().asElement();
+            if (INDEXED_ANNOTATIONS.contains(((TypeElement) type).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package io.summerframework.core.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient based concurrency limit. Latencies are averaged over short sample windows and compared with a
+ * slowly moving long-term average: while the short-term latency stays close to the long-term one the limit
+ * grows by roughly {@code sqrt(limit)} per window, and once queueing pushes latency up the limit is scaled
+ * down by the ratio of the two. The limit starts at {@value #INITIAL_LIMIT} and always stays between the
+ * configured minimum and maximum.
+ */
+final class AdaptiveOverloadGuard implements OverloadGuard {
+
+    private static final int INITIAL_LIMIT = 20;
+    private static final long WINDOW_NANOS = 100_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longLatency;
+
+    AdaptiveOverloadGuard(int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, INITIAL_LIMIT));
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public boolean tryEnter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                int observed = current + 1;
+                int max;
+                while (observed > (max = windowMaxInFlight.get())
+                        && !windowMaxInFlight.compareAndSet(max, observed)) {
+                    // another request raised the window maximum concurrently
+                }
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void exit(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        windowLatency.add(elapsedNanos);
+        windowSamples.increment();
+
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= WINDOW_NANOS && windowSamples.sum() >= MIN_WINDOW_SAMPLES
+                && windowStart.compareAndSet(start, now)) {
+            long samples = windowSamples.sumThenReset();
+            long latency = windowLatency.sumThenReset();
+            int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+            update((double) latency / Math.max(1, samples), maxInFlight);
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Runs on the single thread that closed the sample window.
+     */
+    private synchronized void update(double shortLatency, int maxInFlight) {
+        if (shortLatency <= 0) {
+            return;
+        }
+        if (longLatency == 0) {
+            longLatency = shortLatency;
+        } else {
+            longLatency += (shortLatency - longLatency) / LONG_WINDOW;
+        }
+        if (longLatency / shortLatency > 2) {
+            // latency dropped for good (e.g. a warmed-up JIT); let the baseline catch up faster
+            longLatency *= 0.95;
+        }
+
+        // the server is not using the limit it already has, so latency says nothing about a larger one
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
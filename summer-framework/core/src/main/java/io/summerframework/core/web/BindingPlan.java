@@ -0,0 +1,226 @@
+package io.summerframework.core.web;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Per-class description of how a JSON object is bound into a record or POJO: the bindable property names as
+ * UTF-8 bytes (matched directly against the request bytes), their types and converters, and method handles
+ * for the canonical or no-arg constructor and the field setters. Plans are computed once per class through
+ * {@link #forType(Class)}; routes resolve the plans of their body types when they are registered.
+ */
+final class BindingPlan {
+
+    private static final MethodType RECORD_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType POJO_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return type.isRecord() ? forRecord(type) : forPojo(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final boolean record;
+    private final String[] names;
+    private final byte[][] encodedNames;
+    private final Class<?>[] types;
+    private final ValueConverter[] converters;
+    private final boolean[] bindable;
+    private final int[] shadowed;
+    private final MethodHandle[] setters;
+    private final MethodHandle constructor;
+
+    private BindingPlan(Class<?> type,
+                        boolean record,
+                        List<String> names,
+                        List<Class<?>> types,
+                        MethodHandle[] setters,
+                        MethodHandle constructor) {
+        this.type = type;
+        this.record = record;
+        this.names = names.toArray(new String[0]);
+        this.types = types.toArray(new Class<?>[0]);
+        this.encodedNames = new byte[this.names.length][];
+        this.converters = new ValueConverter[this.names.length];
+        this.bindable = new boolean[this.names.length];
+        this.shadowed = new int[this.names.length];
+        for (int i = 0; i < this.names.length; i++) {
+            this.encodedNames[i] = this.names[i].getBytes(StandardCharsets.UTF_8);
+            this.converters[i] = ValueConverter.forType(this.types[i]);
+            this.bindable[i] = isBindable(this.types[i]);
+            this.shadowed[i] = -1;
+            for (int j = i + 1; j < this.names.length; j++) {
+                if (this.names[i].equals(this.names[j])) {
+                    this.shadowed[i] = j;
+                    break;
+                }
+            }
+        }
+        this.setters = setters;
+        this.constructor = constructor;
+    }
+
+    static BindingPlan forType(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Types that a JSON object is bound into property by property: the application's own records and POJOs.
+     * Platform types ({@code java.*}, {@code javax.*}), enums, arrays, interfaces, abstract classes and types in
+     * module packages not open to this framework are leaf values left to {@link ValueConverter}; their
+     * internals are never reflected on.
+     */
+    static boolean isBindable(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()) || type.isAssignableFrom(LinkedHashMap.class)) {
+            return false;
+        }
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+            return false;
+        }
+        return type.getModule().isOpen(type.getPackageName(), BindingPlan.class.getModule());
+    }
+
+    boolean record() {
+        return record;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String name(int index) {
+        return names[index];
+    }
+
+    Class<?> type(int index) {
+        return types[index];
+    }
+
+    boolean bindable(int index) {
+        return bindable[index];
+    }
+
+    /**
+     * Index of the superclass field hidden by the POJO field at {@code index}, or {@code -1}. Like plain
+     * reflective binding, a JSON property sets every field of that name, subclass first.
+     */
+    int shadowed(int index) {
+        return shadowed[index];
+    }
+
+    ValueConverter converter(int index) {
+        return converters[index];
+    }
+
+    byte[][] encodedNames() {
+        return encodedNames;
+    }
+
+    Object newRecord(Object[] args) {
+        if (constructor == null) {
+            throw new IllegalStateException("Failed to bind record: " + type.getName());
+        }
+        try {
+            return (Object) constructor.invokeExact(args);
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to bind record: " + type.getName(), ex);
+        }
+    }
+
+    Object newPojo() {
+        if (constructor == null) {
+            throw new BadRequestException("Type " + type.getSimpleName() + " must have a no-arg constructor");
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to create type: " + type.getName(), ex);
+        }
+    }
+
+    void set(Object instance, int index, Object value) {
+        try {
+            setters[index].invokeExact(instance, value);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to bind field: " + names[index], ex);
+        }
+    }
+
+    private static BindingPlan forRecord(Class<?> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        List<String> names = new ArrayList<>(components.length);
+        List<Class<?>> types = new ArrayList<>(components.length);
+        for (RecordComponent component : components) {
+            names.add(component.getName());
+            types.add(component.getType());
+        }
+
+        MethodHandle constructor;
+        try {
+            Constructor<?> canonical = type.getDeclaredConstructor(types.toArray(new Class<?>[0]));
+            canonical.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(RECORD_CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException ex) {
+            constructor = null;
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalStateException("Failed to access record constructor: " + type.getName(), ex);
+        }
+        return new BindingPlan(type, true, names, types, null, constructor);
+    }
+
+    private static BindingPlan forPojo(Class<?> type) {
+        List<String> names = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        List<MethodHandle> setters = new ArrayList<>();
+        Class<?> current = type;
+        while (current != null && current != Object.class) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    setters.add(MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE));
+                } catch (IllegalAccessException | RuntimeException ex) {
+                    throw new IllegalStateException("Failed to bind field: " + field.getName(), ex);
+                }
+                names.add(field.getName());
+                types.add(field.getType());
+            }
+            current = current.getSuperclass();
+        }
+
+        MethodHandle constructor;
+        try {
+            Constructor<?> noArg = type.getDeclaredConstructor();
+            noArg.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(noArg).asType(POJO_CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException ex) {
+            constructor = null;
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalStateException("Failed to create type: " + type.getName(), ex);
+        }
+        return new BindingPlan(type, false, names, types, setters.toArray(new MethodHandle[0]), constructor);
+    }
+}
@@ -1,179 +1,111 @@
 package io.summerframework.core.web;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.RecordComponent;
-import java.util.Map;
-
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Binds request bodies and scalar request values to handler parameter types. JSON bodies are read straight
+ * from the request bytes into records and POJOs; only parameters and properties typed as {@code Object},
+ * {@code Map} or {@code List} are given the generic {@code Map}/{@code List} tree.
+ */
 final class BodyBinder {
 
-    private final Json json = new Json();
-
-    Object bind(String body, Class<?> targetType) {
+    Object bind(byte[] body, Class<?> targetType) {
         if (targetType == String.class) {
-            return body;
-        }
-
-        Object parsed = json.parse(body);
-        return convert(parsed, targetType, "root");
-    }
-
-    Object bindScalar(String value, Class<?> targetType, String fieldName) {
-        return convert(value, targetType, fieldName);
-    }
-
-    @SuppressWarnings("unchecked")
-    private Object convert(Object value, Class<?> targetType, String fieldName) {
-        if (value == null) {
-            if (targetType.isPrimitive()) {
-                throw new BadRequestException("Field '" + fieldName + "' cannot be null");
-            }
-            return null;
+            return new String(body, StandardCharsets.UTF_8);
         }
 
-        if (targetType.isAssignableFrom(value.getClass())) {
-            return value;
-        }
-
-        if (targetType == Integer.class || targetType == int.class) {
-            return toInteger(value, fieldName);
-        }
-        if (targetType == Long.class || targetType == long.class) {
-            return toLong(value, fieldName);
-        }
-        if (targetType == Double.class || targetType == double.class) {
-            return toDouble(value, fieldName);
-        }
-        if (targetType == Boolean.class || targetType == boolean.class) {
-            return toBoolean(value, fieldName);
-        }
-        if (targetType == String.class) {
-            return String.valueOf(value);
-        }
-
-        if (value instanceof Map<?, ?> rawMap) {
-            Map<String, Object> map = (Map<String, Object>) rawMap;
-            if (targetType.isRecord()) {
-                return bindRecord(map, targetType);
-            }
-            return bindPojo(map, targetType);
+        JsonReader reader = new JsonReader(body);
+        if (reader.isBlank()) {
+            return ValueConverter.forType(targetType).convert(null, "root");
         }
-
-        throw new BadRequestException("Cannot bind field '" + fieldName + "' to " + targetType.getSimpleName());
+        Object value = BindingPlan.isBindable(targetType) && reader.peekToken() == '{'
+                ? readObject(reader, BindingPlan.forType(targetType))
+                : ValueConverter.forType(targetType).convert(reader.readValue(), "root");
+        reader.endDocument();
+        return value;
     }
 
-    private Object bindRecord(Map<String, Object> map, Class<?> targetType) {
-        RecordComponent[] components = targetType.getRecordComponents();
-        Object[] args = new Object[components.length];
-        Class<?>[] argTypes = new Class<?>[components.length];
-
-        for (int i = 0; i < components.length; i++) {
-            RecordComponent component = components[i];
-            argTypes[i] = component.getType();
-            args[i] = convert(map.get(component.getName()), component.getType(), component.getName());
-        }
-
-        try {
-            Constructor<?> constructor = targetType.getDeclaredConstructor(argTypes);
-            constructor.setAccessible(true);
-            return constructor.newInstance(args);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException ex) {
-            throw new IllegalStateException("Failed to bind record: " + targetType.getName(), ex);
-        }
+    /**
+     * Resolves the binding plans of a body type and of every object type nested in it, so the reflective
+     * work happens when routes are registered rather than on the first request.
+     */
+    void prepare(Class<?> targetType) {
+        prepare(targetType, new HashSet<>());
     }
 
-    private Object bindPojo(Map<String, Object> map, Class<?> targetType) {
-        Object instance;
-        try {
-            Constructor<?> constructor = targetType.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            instance = constructor.newInstance();
-        } catch (NoSuchMethodException ex) {
-            throw new BadRequestException("Type " + targetType.getSimpleName() + " must have a no-arg constructor");
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
-            throw new IllegalStateException("Failed to create type: " + targetType.getName(), ex);
+    private void prepare(Class<?> targetType, Set<Class<?>> visited) {
+        if (!BindingPlan.isBindable(targetType) || !visited.add(targetType)) {
+            return;
         }
-
-        Class<?> current = targetType;
-        while (current != null && current != Object.class) {
-            for (Field field : current.getDeclaredFields()) {
-                if (Modifier.isStatic(field.getModifiers())) {
-                    continue;
-                }
-                if (!map.containsKey(field.getName())) {
-                    continue;
-                }
-                Object raw = map.get(field.getName());
-                Object converted = convert(raw, field.getType(), field.getName());
-                try {
-                    field.setAccessible(true);
-                    field.set(instance, converted);
-                } catch (IllegalAccessException ex) {
-                    throw new IllegalStateException("Failed to bind field: " + field.getName(), ex);
-                }
+        BindingPlan plan = BindingPlan.forType(targetType);
+        for (int i = 0; i < plan.size(); i++) {
+            try {
+                prepare(plan.type(i), visited);
+            } catch (RuntimeException ex) {
+                // a nested type that cannot be reflected on only fails the requests that actually bind it
             }
-            current = current.getSuperclass();
         }
+    }
 
-        return instance;
+    private Object readObject(JsonReader reader, BindingPlan plan) {
+        return plan.record() ? readRecord(reader, plan) : readPojo(reader, plan);
     }
 
-    private Integer toInteger(Object value, String fieldName) {
-        if (value instanceof Number number) {
-            return number.intValue();
+    private Object readProperty(JsonReader reader, BindingPlan plan, int index) {
+        if (reader.tryReadNull()) {
+            return plan.converter(index).convert(null, plan.name(index));
         }
-        if (value instanceof String text) {
-            try {
-                return Integer.parseInt(text);
-            } catch (NumberFormatException ex) {
-                throw new BadRequestException("Invalid integer for field '" + fieldName + "'");
-            }
+        if (plan.bindable(index) && reader.peekToken() == '{') {
+            return readObject(reader, BindingPlan.forType(plan.type(index)));
         }
-        throw new BadRequestException("Invalid integer for field '" + fieldName + "'");
+        return plan.converter(index).convert(reader.readValue(), plan.name(index));
     }
 
-    private Long toLong(Object value, String fieldName) {
-        if (value instanceof Number number) {
-            return number.longValue();
-        }
-        if (value instanceof String text) {
-            try {
-                return Long.parseLong(text);
-            } catch (NumberFormatException ex) {
-                throw new BadRequestException("Invalid long for field '" + fieldName + "'");
+    private Object readRecord(JsonReader reader, BindingPlan plan) {
+        Object[] args = new Object[plan.size()];
+        boolean[] present = new boolean[args.length];
+        reader.beginObject();
+        boolean first = true;
+        int field;
+        while ((field = reader.nextField(plan.encodedNames(), first)) != JsonReader.END_OBJECT) {
+            first = false;
+            if (field == JsonReader.NO_FIELD) {
+                reader.skipValue();
+                continue;
             }
+            args[field] = readProperty(reader, plan, field);
+            present[field] = true;
         }
-        throw new BadRequestException("Invalid long for field '" + fieldName + "'");
-    }
 
-    private Double toDouble(Object value, String fieldName) {
-        if (value instanceof Number number) {
-            return number.doubleValue();
-        }
-        if (value instanceof String text) {
-            try {
-                return Double.parseDouble(text);
-            } catch (NumberFormatException ex) {
-                throw new BadRequestException("Invalid number for field '" + fieldName + "'");
+        for (int i = 0; i < args.length; i++) {
+            if (!present[i]) {
+                args[i] = plan.converter(i).convert(null, plan.name(i));
             }
         }
-        throw new BadRequestException("Invalid number for field '" + fieldName + "'");
+        return plan.newRecord(args);
     }
 
-    private Boolean toBoolean(Object value, String fieldName) {
-        if (value instanceof Boolean booleanValue) {
-            return booleanValue;
-        }
-        if (value instanceof String text) {
-            if ("true".equalsIgnoreCase(text)) {
-                return true;
+    private Object readPojo(JsonReader reader, BindingPlan plan) {
+        Object instance = plan.newPojo();
+        reader.beginObject();
+        boolean first = true;
+        int field;
+        while ((field = reader.nextField(plan.encodedNames(), first)) != JsonReader.END_OBJECT) {
+            first = false;
+            if (field == JsonReader.NO_FIELD) {
+                reader.skipValue();
+                continue;
             }
-            if ("false".equalsIgnoreCase(text)) {
-                return false;
+            int start = reader.position();
+            plan.set(instance, field, readProperty(reader, plan, field));
+            // the same bytes again for each hidden superclass field; every read ends at the same position
+            for (int shadowed = plan.shadowed(field); shadowed >= 0; shadowed = plan.shadowed(shadowed)) {
+                reader.rewind(start);
+                plan.set(instance, shadowed, readProperty(reader, plan, shadowed));
             }
         }
-        throw new BadRequestException("Invalid boolean for field '" + fieldName + "'");
+        return instance;
     }
 }
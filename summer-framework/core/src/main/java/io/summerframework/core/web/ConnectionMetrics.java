@@ -0,0 +1,8 @@
+package io.summerframework.core.web;
+
+/**
+ * Point-in-time view of the engine's connections: sockets currently open, sockets shed at accept because
+ * {@code maxConnections} was reached, and connections closed after sitting idle.
+ */
+public record ConnectionMetrics(int open, long shed, long idleClosed) {
+}
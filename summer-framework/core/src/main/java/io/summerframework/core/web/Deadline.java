@@ -0,0 +1,116 @@
+package io.summerframework.core.web;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the request being handled, derived from {@code requestTimeoutMillis}. Handler code reads it
+ * through {@link #current()} and can pass the remaining time on to downstream calls or give up early with
+ * {@link #checkExpired()}. When the deadline passes while a synchronous handler is still running, its thread
+ * is interrupted and the request is answered with {@code 504} once the handler returns.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final Deadline NONE = new Deadline(0, 0, null);
+
+    private static final int RUNNING = 0;
+    private static final int FINISHED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+    private final Thread thread;
+    private int state;
+
+    private Deadline(long timeoutMillis, long deadlineNanos, Thread thread) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = deadlineNanos;
+        this.thread = thread;
+    }
+
+    /**
+     * The deadline of the request handled by the calling thread; a deadline that never expires when no
+     * request timeout is configured or the caller is not a handler thread.
+     */
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    public boolean isSet() {
+        return this != NONE;
+    }
+
+    /**
+     * Time left until the deadline, never negative; {@code Long.MAX_VALUE} when no deadline is set.
+     */
+    public long remaining(TimeUnit unit) {
+        if (!isSet()) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean expired() {
+        if (!isSet()) {
+            return false;
+        }
+        synchronized (this) {
+            if (state == EXPIRED) {
+                return true;
+            }
+        }
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Throws a {@link RequestTimeoutException} (answered with {@code 504}) if the deadline has passed.
+     */
+    public void checkExpired() {
+        if (expired()) {
+            throw new RequestTimeoutException("Request timed out after " + timeoutMillis + " ms");
+        }
+    }
+
+    /**
+     * Starts a deadline for the handler about to run on the calling thread.
+     */
+    static Deadline enter(long timeoutMillis) {
+        Deadline deadline = new Deadline(timeoutMillis,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis),
+                Thread.currentThread());
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Called by the timer: marks the deadline as expired and interrupts the handler if it is still running.
+     * The interrupt is raised under the lock so {@link #exit()} never returns before it has landed.
+     */
+    void expire() {
+        synchronized (this) {
+            if (state != RUNNING) {
+                return;
+            }
+            state = EXPIRED;
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Called by the handler thread once the handler returned. Returns {@code false} if the deadline expired
+     * first, in which case the interrupt meant for the handler is cleared so it does not leak into the next
+     * request on this thread.
+     */
+    boolean exit() {
+        CURRENT.remove();
+        synchronized (this) {
+            if (state == RUNNING) {
+                state = FINISHED;
+                return true;
+            }
+        }
+        Thread.interrupted();
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package io.summerframework.core.web;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+final class FixedOverloadGuard implements OverloadGuard {
+
+    private final int maxConcurrentRequests;
+    private final Semaphore semaphore;
+    private final LongAdder rejected = new LongAdder();
+
+    FixedOverloadGuard(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.semaphore = new Semaphore(maxConcurrentRequests);
+    }
+
+    @Override
+    public boolean tryEnter() {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    @Override
+    public void exit(long elapsedNanos) {
+        semaphore.release();
+    }
+
+    @Override
+    public int limit() {
+        return maxConcurrentRequests;
+    }
+
+    @Override
+    public int inFlight() {
+        return maxConcurrentRequests - semaphore.availablePermits();
+    }
+
+    @Override
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,324 @@
+package io.summerframework.core.web;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Incremental HTTP/1.1 request decoder used by the NIO engine. Bytes are fed as they arrive; a request is
+ * returned once its head and body are complete, leaving any pipelined bytes in the source buffer.
+ */
+final class HttpRequestDecoder {
+
+    static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final int MAX_LINE_BYTES = 1024;
+    private static final int INITIAL_BODY_BYTES = 8 * 1024;
+
+    private enum State {
+        HEAD,
+        BODY,
+        CHUNK_SIZE,
+        CHUNK_DATA,
+        CHUNK_DATA_END,
+        TRAILERS
+    }
+
+    private final int maxBodyBytes;
+    private State state = State.HEAD;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int headBytes;
+    private String method;
+    private String path;
+    private String rawQuery;
+    private String version;
+    private Map<String, List<String>> headers;
+    private byte[] body;
+    private int bodyLength;
+    private long remaining;
+    private boolean continueRequested;
+
+    /**
+     * @param maxBodyBytes largest accepted body; a larger {@code Content-Length}, or chunks adding up to more,
+     *                     fail with {@code 413}
+     */
+    HttpRequestDecoder(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    DecodedRequest decode(ByteBuffer in) throws DecodeException {
+        while (in.hasRemaining()) {
+            switch (state) {
+                case HEAD -> {
+                    String headLine = readLine(in, MAX_HEADER_BYTES);
+                    if (headLine == null) {
+                        continue;
+                    }
+                    if (method == null) {
+                        if (!headLine.isEmpty()) {
+                            parseRequestLine(headLine);
+                        }
+                        continue;
+                    }
+                    if (!headLine.isEmpty()) {
+                        parseHeader(headLine);
+                        continue;
+                    }
+                    DecodedRequest request = startBody();
+                    if (request != null) {
+                        return request;
+                    }
+                }
+                case BODY -> {
+                    readBody(in);
+                    if (remaining == 0) {
+                        return complete();
+                    }
+                }
+                case CHUNK_SIZE -> {
+                    String sizeLine = readLine(in, MAX_LINE_BYTES);
+                    if (sizeLine != null) {
+                        startChunk(sizeLine);
+                    }
+                }
+                case CHUNK_DATA -> {
+                    readBody(in);
+                    if (remaining == 0) {
+                        state = State.CHUNK_DATA_END;
+                    }
+                }
+                case CHUNK_DATA_END -> {
+                    String terminator = readLine(in, MAX_LINE_BYTES);
+                    if (terminator != null) {
+                        if (!terminator.isEmpty()) {
+                            throw new DecodeException(400, "Malformed chunk terminator");
+                        }
+                        state = State.CHUNK_SIZE;
+                    }
+                }
+                case TRAILERS -> {
+                    String trailer = readLine(in, MAX_HEADER_BYTES);
+                    if (trailer != null && trailer.isEmpty()) {
+                        return complete();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} once per request when the client sent {@code Expect: 100-continue} and is waiting
+     * for the interim response before transmitting the body.
+     */
+    boolean takeContinueRequest() {
+        boolean requested = continueRequested;
+        continueRequested = false;
+        return requested;
+    }
+
+    private void parseRequestLine(String requestLine) throws DecodeException {
+        int first = requestLine.indexOf(' ');
+        int last = requestLine.lastIndexOf(' ');
+        if (first <= 0 || last == first) {
+            throw new DecodeException(400, "Malformed request line");
+        }
+
+        String target = requestLine.substring(first + 1, last);
+        version = requestLine.substring(last + 1);
+        if (!"HTTP/1.1".equals(version) && !"HTTP/1.0".equals(version)) {
+            throw new DecodeException(505, "Unsupported HTTP version: " + version);
+        }
+
+        try {
+            URI uri = new URI(target);
+            path = uri.getPath();
+            rawQuery = uri.getRawQuery();
+        } catch (URISyntaxException ex) {
+            throw new DecodeException(400, "Malformed request target");
+        }
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        method = requestLine.substring(0, first);
+        headers = new LinkedHashMap<>();
+    }
+
+    private void parseHeader(String headerLine) throws DecodeException {
+        int separator = headerLine.indexOf(':');
+        if (separator <= 0 || Character.isWhitespace(headerLine.charAt(0))) {
+            throw new DecodeException(400, "Malformed header line");
+        }
+        String name = headerLine.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+        String value = headerLine.substring(separator + 1).trim();
+        headers.computeIfAbsent(name, ignored -> new ArrayList<>(1)).add(value);
+    }
+
+    private DecodedRequest startBody() throws DecodeException {
+        String transferEncoding = firstHeader("transfer-encoding");
+        String contentLength = firstHeader("content-length");
+        continueRequested = "100-continue".equalsIgnoreCase(firstHeader("expect"));
+
+        if (transferEncoding != null) {
+            if (contentLength != null) {
+                throw new DecodeException(400, "Both Transfer-Encoding and Content-Length are present");
+            }
+            if (!transferEncoding.toLowerCase(Locale.ROOT).endsWith("chunked")) {
+                throw new DecodeException(501, "Unsupported transfer encoding: " + transferEncoding);
+            }
+            body = new byte[Math.min(INITIAL_BODY_BYTES, maxBodyBytes)];
+            state = State.CHUNK_SIZE;
+            return null;
+        }
+
+        long length = 0;
+        if (contentLength != null) {
+            try {
+                length = Long.parseLong(contentLength);
+            } catch (NumberFormatException ex) {
+                throw new DecodeException(400, "Invalid Content-Length");
+            }
+            if (length < 0) {
+                throw new DecodeException(400, "Invalid Content-Length");
+            }
+            if (length > maxBodyBytes) {
+                throw new DecodeException(413, "Request body too large");
+            }
+        }
+
+        if (length == 0) {
+            body = new byte[0];
+            continueRequested = false;
+            return complete();
+        }
+
+        // the buffer grows as bytes arrive, so a large Content-Length costs nothing until the body is sent
+        body = new byte[(int) Math.min(length, INITIAL_BODY_BYTES)];
+        remaining = length;
+        state = State.BODY;
+        return null;
+    }
+
+    private void startChunk(String sizeLine) throws DecodeException {
+        int extension = sizeLine.indexOf(';');
+        String hex = (extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim();
+        long size;
+        try {
+            size = Long.parseLong(hex, 16);
+        } catch (NumberFormatException ex) {
+            throw new DecodeException(400, "Malformed chunk size");
+        }
+        if (size < 0 || bodyLength + size > maxBodyBytes) {
+            throw new DecodeException(413, "Request body too large");
+        }
+        if (size == 0) {
+            state = State.TRAILERS;
+            return;
+        }
+        remaining = size;
+        state = State.CHUNK_DATA;
+    }
+
+    private void readBody(ByteBuffer in) {
+        int count = (int) Math.min(remaining, in.remaining());
+        // a Content-Length body ends exactly at its declared size; chunked bodies may grow up to the limit
+        ensureBodyCapacity(bodyLength + count, state == State.BODY ? bodyLength + remaining : maxBodyBytes);
+        in.get(body, bodyLength, count);
+        bodyLength += count;
+        remaining -= count;
+    }
+
+    private DecodedRequest complete() {
+        byte[] content = body.length == bodyLength ? body : Arrays.copyOf(body, bodyLength);
+        DecodedRequest request = new DecodedRequest(method, path, rawQuery, version, headers, content);
+        state = State.HEAD;
+        headBytes = 0;
+        method = null;
+        path = null;
+        rawQuery = null;
+        version = null;
+        headers = null;
+        body = null;
+        bodyLength = 0;
+        remaining = 0;
+        return request;
+    }
+
+    private String readLine(ByteBuffer in, int limit) throws DecodeException {
+        while (in.hasRemaining()) {
+            byte next = in.get();
+            if (state == State.HEAD && ++headBytes > MAX_HEADER_BYTES) {
+                throw new DecodeException(431, "Request header fields too large");
+            }
+            if (next == '\n') {
+                int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                String value = new String(line, 0, end, StandardCharsets.ISO_8859_1);
+                lineLength = 0;
+                return value;
+            }
+            if (lineLength == limit) {
+                throw new DecodeException(state == State.HEAD ? 431 : 400, "Line too long");
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, Math.min(limit, line.length * 2));
+            }
+            line[lineLength++] = next;
+        }
+        return null;
+    }
+
+    private void ensureBodyCapacity(int required, long ceiling) {
+        if (required > body.length) {
+            body = Arrays.copyOf(body, (int) Math.min(ceiling, Math.max(required, (long) body.length * 2)));
+        }
+    }
+
+    private String firstHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    record DecodedRequest(String method,
+                          String path,
+                          String rawQuery,
+                          String version,
+                          Map<String, List<String>> headers,
+                          byte[] body) {
+
+        boolean keepAlive() {
+            List<String> connection = headers.get("connection");
+            String value = connection == null || connection.isEmpty() ? null : connection.get(0);
+            if ("HTTP/1.0".equals(version)) {
+                return "keep-alive".equalsIgnoreCase(value);
+            }
+            return !"close".equalsIgnoreCase(value);
+        }
+
+        boolean http11() {
+            return "HTTP/1.1".equals(version);
+        }
+    }
+
+    static final class DecodeException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        DecodeException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int status() {
+            return status;
+        }
+    }
+}
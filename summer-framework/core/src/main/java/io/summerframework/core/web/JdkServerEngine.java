@@ -0,0 +1,148 @@
+package io.summerframework.core.web;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+final class JdkServerEngine implements ServerEngine {
+
+    private static final String MAX_CONNECTIONS_PROPERTY = "jdk.httpserver.maxConnections";
+    private static final String IDLE_INTERVAL_PROPERTY = "sun.net.httpserver.idleInterval";
+
+    private static boolean limitsRead;
+
+    private HttpServer httpServer;
+
+    @Override
+    public void start(InetSocketAddress address,
+                      ServerTuningProperties tuning,
+                      Executor executor,
+                      ExchangeHandler handler) throws IOException {
+        applyConnectionLimits(tuning);
+        httpServer = HttpServer.create(address, tuning.socketBacklog());
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/", exchange -> handler.handle(new JdkServerExchange(exchange)));
+        httpServer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+    }
+
+    /**
+     * The JDK server only reads its connection limits from system properties, once, when the first server is
+     * created in the JVM; properties set explicitly on the command line win. It has no per-connection request
+     * limit, so {@code maxRequestsPerConnection} only applies to the NIO engine.
+     */
+    private static synchronized void applyConnectionLimits(ServerTuningProperties tuning) {
+        if (tuning.maxConnections() > 0) {
+            applyConnectionLimit(MAX_CONNECTIONS_PROPERTY, Integer.toString(tuning.maxConnections()));
+        }
+        if (tuning.idleTimeoutMillis() > 0) {
+            long seconds = Math.max(1, (tuning.idleTimeoutMillis() + 999) / 1000);
+            applyConnectionLimit(IDLE_INTERVAL_PROPERTY, Long.toString(seconds));
+        }
+        limitsRead = true;
+    }
+
+    private static void applyConnectionLimit(String property, String requested) {
+        String current = System.getProperty(property);
+        if (current == null && !limitsRead) {
+            System.setProperty(property, requested);
+        } else if (!requested.equals(current)) {
+            System.out.println("JdkServerEngine ignores " + property + "=" + requested + ", "
+                    + (current != null ? current : "the JDK default") + " is already in effect for this JVM");
+        }
+    }
+
+    private static final class JdkServerExchange implements ServerExchange {
+
+        private final HttpExchange exchange;
+        private final long dispatchedNanos = QueueWaitExecutor.dispatchedNanos();
+
+        private JdkServerExchange(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public long dispatchedNanos() {
+            return dispatchedNanos;
+        }
+
+        @Override
+        public String requestMethod() {
+            return exchange.getRequestMethod();
+        }
+
+        @Override
+        public String requestPath() {
+            return exchange.getRequestURI().getPath();
+        }
+
+        @Override
+        public String rawQuery() {
+            return exchange.getRequestURI().getRawQuery();
+        }
+
+        @Override
+        public Map<String, List<String>> requestHeaders() {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> entry : exchange.getRequestHeaders().entrySet()) {
+                headers.put(entry.getKey().toLowerCase(), entry.getValue());
+            }
+            return headers;
+        }
+
+        @Override
+        public List<String> requestHeaderValues(String name) {
+            return exchange.getRequestHeaders().get(name);
+        }
+
+        @Override
+        public String requestHeader(String name) {
+            return exchange.getRequestHeaders().getFirst(name);
+        }
+
+        @Override
+        public InputStream requestBody() {
+            return exchange.getRequestBody();
+        }
+
+        @Override
+        public void setResponseHeader(String name, String value) {
+            exchange.getResponseHeaders().set(name, value);
+        }
+
+        @Override
+        public void sendResponseHeaders(int status, long contentLength) throws IOException {
+            if (contentLength > 0 && "HEAD".equals(exchange.getRequestMethod())) {
+                // HttpServer logs a warning for a length on HEAD and expects the header to be set by hand
+                exchange.getResponseHeaders().set("Content-Length", Long.toString(contentLength));
+                contentLength = -1;
+            }
+            exchange.sendResponseHeaders(status, contentLength);
+        }
+
+        @Override
+        public OutputStream responseBody() {
+            return exchange.getResponseBody();
+        }
+
+        @Override
+        public void close() {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package io.summerframework.core.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pull-style JSON tokenizer over the raw UTF-8 request bytes. Callers drive it structurally
+ * ({@link #beginObject()}, {@link #nextField(byte[][], boolean)}, ...) so a body can be bound straight into
+ * its target type; {@link #readValue()} still builds the generic {@code Map}/{@code List} tree where no type
+ * is known.
+ */
+final class JsonReader {
+
+    static final int NO_FIELD = -1;
+    static final int END_OBJECT = -2;
+
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final byte[] source;
+    private final int limit;
+    private int index;
+
+    JsonReader(byte[] source) {
+        this.source = source;
+        this.limit = source.length;
+    }
+
+    int position() {
+        return index;
+    }
+
+    /**
+     * Moves back to a {@link #position()} taken earlier, to read the same value again.
+     */
+    void rewind(int position) {
+        index = position;
+    }
+
+    /**
+     * Whether the input holds nothing but whitespace.
+     */
+    boolean isBlank() {
+        skipWhitespace();
+        return index >= limit;
+    }
+
+    /**
+     * Returns the first byte of the next value without consuming it.
+     */
+    byte peekToken() {
+        skipWhitespace();
+        if (index >= limit) {
+            throw error("Unexpected end of input");
+        }
+        return source[index];
+    }
+
+    void endDocument() {
+        skipWhitespace();
+        if (index != limit) {
+            throw error("Unexpected token");
+        }
+    }
+
+    boolean tryReadNull() {
+        if (peekToken() != 'n') {
+            return false;
+        }
+        expectLiteral(NULL);
+        return true;
+    }
+
+    void beginObject() {
+        skipWhitespace();
+        expect('{');
+    }
+
+    /**
+     * Reads the next field name of the current object, including its colon, and returns the index of the
+     * matching entry in {@code names} (raw UTF-8 bytes), {@link #NO_FIELD} for an unknown name, or
+     * {@link #END_OBJECT} once the closing brace has been consumed. Names without escapes are matched in place.
+     */
+    int nextField(byte[][] names, boolean first) {
+        skipWhitespace();
+        if (peek('}')) {
+            index++;
+            return END_OBJECT;
+        }
+        if (!first) {
+            expect(',');
+            skipWhitespace();
+        }
+        expect('"');
+        int start = index;
+        boolean escaped = false;
+        while (index < limit && source[index] != '"') {
+            if (source[index] == '\\') {
+                escaped = true;
+                index++;
+            }
+            index++;
+        }
+        if (index >= limit) {
+            throw error("Unterminated string");
+        }
+
+        int match;
+        if (escaped) {
+            index = start - 1;
+            match = indexOf(names, readString().getBytes(StandardCharsets.UTF_8), 0, -1);
+        } else {
+            match = indexOf(names, source, start, index - start);
+            index++;
+        }
+        skipWhitespace();
+        expect(':');
+        return match;
+    }
+
+    Object readValue() {
+        byte token = peekToken();
+        return switch (token) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> {
+                expectLiteral(TRUE);
+                yield Boolean.TRUE;
+            }
+            case 'f' -> {
+                expectLiteral(FALSE);
+                yield Boolean.FALSE;
+            }
+            case 'n' -> {
+                expectLiteral(NULL);
+                yield null;
+            }
+            default -> {
+                if (token == '-' || isDigit(token)) {
+                    yield readNumber();
+                }
+                throw error("Unexpected token: " + (char) token);
+            }
+        };
+    }
+
+    void skipValue() {
+        byte token = peekToken();
+        switch (token) {
+            case '{' -> {
+                index++;
+                skipWhitespace();
+                if (peek('}')) {
+                    index++;
+                    return;
+                }
+                while (true) {
+                    skipWhitespace();
+                    skipString();
+                    skipWhitespace();
+                    expect(':');
+                    skipValue();
+                    skipWhitespace();
+                    if (peek('}')) {
+                        index++;
+                        return;
+                    }
+                    expect(',');
+                }
+            }
+            case '[' -> {
+                index++;
+                skipWhitespace();
+                if (peek(']')) {
+                    index++;
+                    return;
+                }
+                while (true) {
+                    skipValue();
+                    skipWhitespace();
+                    if (peek(']')) {
+                        index++;
+                        return;
+                    }
+                    expect(',');
+                }
+            }
+            case '"' -> skipString();
+            default -> readValue();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        expect('{');
+        skipWhitespace();
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (peek('}')) {
+            index++;
+            return values;
+        }
+
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            values.put(key, readValue());
+            skipWhitespace();
+            if (peek('}')) {
+                index++;
+                return values;
+            }
+            expect(',');
+        }
+    }
+
+    private List<Object> readArray() {
+        expect('[');
+        skipWhitespace();
+        List<Object> values = new ArrayList<>();
+        if (peek(']')) {
+            index++;
+            return values;
+        }
+
+        while (true) {
+            values.add(readValue());
+            skipWhitespace();
+            if (peek(']')) {
+                index++;
+                return values;
+            }
+            expect(',');
+        }
+    }
+
+    /**
+     * Decodes a string token. Runs of plain bytes are decoded as UTF-8 in one step; a builder is only
+     * needed when the string contains escapes.
+     */
+    private String readString() {
+        expect('"');
+        int start = index;
+        StringBuilder builder = null;
+        while (index < limit) {
+            byte ch = source[index];
+            if (ch == '"') {
+                String tail = new String(source, start, index - start, StandardCharsets.UTF_8);
+                index++;
+                return builder == null ? tail : builder.append(tail).toString();
+            }
+            if (ch != '\\') {
+                index++;
+                continue;
+            }
+
+            if (builder == null) {
+                builder = new StringBuilder(index - start + 16);
+            }
+            builder.append(new String(source, start, index - start, StandardCharsets.UTF_8));
+            index++;
+            if (index >= limit) {
+                throw error("Invalid escape");
+            }
+            byte escaped = source[index++];
+            switch (escaped) {
+                case '"' -> builder.append('"');
+                case '\\' -> builder.append('\\');
+                case '/' -> builder.append('/');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> builder.append(readUnicode());
+                default -> throw error("Invalid escape: " + (char) escaped);
+            }
+            start = index;
+        }
+        throw error("Unterminated string");
+    }
+
+    private void skipString() {
+        expect('"');
+        while (index < limit) {
+            byte ch = source[index++];
+            if (ch == '"') {
+                return;
+            }
+            if (ch == '\\') {
+                index++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private char readUnicode() {
+        if (index + 4 > limit) {
+            throw error("Invalid unicode escape");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(source[index + i], 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape: " + new String(source, index, 4, StandardCharsets.ISO_8859_1));
+            }
+            value = (value << 4) | digit;
+        }
+        index += 4;
+        return (char) value;
+    }
+
+    private Object readNumber() {
+        int start = index;
+        boolean negative = source[index] == '-';
+        if (negative) {
+            index++;
+        }
+        int digitsStart = index;
+        consumeDigits();
+        int digitsEnd = index;
+        boolean decimal = false;
+        if (peek('.')) {
+            decimal = true;
+            index++;
+            consumeDigits();
+        }
+        if (peek('e') || peek('E')) {
+            decimal = true;
+            index++;
+            if (peek('+') || peek('-')) {
+                index++;
+            }
+            consumeDigits();
+        }
+
+        if (!decimal && digitsEnd - digitsStart < 19) {
+            long value = 0;
+            for (int i = digitsStart; i < digitsEnd; i++) {
+                value = value * 10 + (source[i] - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        String token = new String(source, start, index - start, StandardCharsets.ISO_8859_1);
+        try {
+            if (decimal) {
+                return Double.parseDouble(token);
+            }
+            return Long.parseLong(token);
+        } catch (NumberFormatException ex) {
+            throw error("Invalid number: " + token);
+        }
+    }
+
+    private void consumeDigits() {
+        if (index >= limit || !isDigit(source[index])) {
+            throw error("Expected digit");
+        }
+        while (index < limit && isDigit(source[index])) {
+            index++;
+        }
+    }
+
+    private void expectLiteral(byte[] literal) {
+        if (index + literal.length > limit) {
+            throw error("Invalid literal");
+        }
+        for (int i = 0; i < literal.length; i++) {
+            if (source[index + i] != literal[i]) {
+                throw error("Invalid literal");
+            }
+        }
+        index += literal.length;
+    }
+
+    private void skipWhitespace() {
+        while (index < limit) {
+            byte ch = source[index];
+            if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') {
+                return;
+            }
+            index++;
+        }
+    }
+
+    private void expect(char expected) {
+        if (index >= limit || source[index] != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        index++;
+    }
+
+    private boolean peek(char token) {
+        return index < limit && source[index] == token;
+    }
+
+    private static boolean isDigit(byte ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static int indexOf(byte[][] names, byte[] bytes, int offset, int length) {
+        int count = length < 0 ? bytes.length : length;
+        for (int i = 0; i < names.length; i++) {
+            byte[] name = names[i];
+            if (name.length != count) {
+                continue;
+            }
+            boolean equal = true;
+            for (int j = 0; j < count; j++) {
+                if (name[j] != bytes[offset + j]) {
+                    equal = false;
+                    break;
+                }
+            }
+            if (equal) {
+                return i;
+            }
+        }
+        return NO_FIELD;
+    }
+
+    private BadRequestException error(String message) {
+        return new BadRequestException(message + " at position " + index);
+    }
+}
@@ -0,0 +1,189 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes JSON tokens straight into a UTF-8 byte buffer. When the buffer fills up its content is handed to
+ * the target stream and the buffer is reused, so a payload never exists as an intermediate {@code String}.
+ */
+final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private boolean spilled;
+
+    JsonWriter(OutputStream out, byte[] buffer) {
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Whether part of the output already left the buffer. If not, the whole document is available through
+     * {@link #buffer()} and {@link #size()} and its length is known before anything is written.
+     */
+    boolean spilled() {
+        return spilled;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int size() {
+        return position;
+    }
+
+    void flush() {
+        if (position == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        position = 0;
+        spilled = true;
+    }
+
+    void writeByte(int value) {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes) {
+        int offset = 0;
+        int remaining = bytes.length;
+        while (remaining > 0) {
+            if (position == buffer.length) {
+                flush();
+            }
+            int count = Math.min(remaining, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, count);
+            position += count;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+    void writeNull() {
+        writeBytes(NULL);
+    }
+
+    void writeBoolean(boolean value) {
+        writeBytes(value ? TRUE : FALSE);
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(MIN_LONG);
+            return;
+        }
+        if (buffer.length - position < 20) {
+            flush();
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        int index = position + digits;
+        position = index;
+        do {
+            buffer[--index] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+    }
+
+    void writeAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    void writeString(String value) {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                writeAsciiChar(ch);
+            } else if (ch < 0x800) {
+                writeByte(0xC0 | (ch >> 6));
+                writeByte(0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (ch >> 12));
+                writeByte(0x80 | ((ch >> 6) & 0x3F));
+                writeByte(0x80 | (ch & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAsciiChar(char ch) {
+        switch (ch) {
+            case '"' -> {
+                writeByte('\\');
+                writeByte('"');
+            }
+            case '\\' -> {
+                writeByte('\\');
+                writeByte('\\');
+            }
+            case '\b' -> {
+                writeByte('\\');
+                writeByte('b');
+            }
+            case '\f' -> {
+                writeByte('\\');
+                writeByte('f');
+            }
+            case '\n' -> {
+                writeByte('\\');
+                writeByte('n');
+            }
+            case '\r' -> {
+                writeByte('\\');
+                writeByte('r');
+            }
+            case '\t' -> {
+                writeByte('\\');
+                writeByte('t');
+            }
+            default -> {
+                if (ch < 0x20) {
+                    writeByte('\\');
+                    writeByte('u');
+                    writeByte('0');
+                    writeByte('0');
+                    writeByte(HEX[ch >> 4]);
+                    writeByte(HEX[ch & 0xF]);
+                } else {
+                    writeByte(ch);
+                }
+            }
+        }
+    }
+}
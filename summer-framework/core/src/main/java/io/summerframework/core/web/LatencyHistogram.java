@@ -0,0 +1,96 @@
+package io.summerframework.core.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets in microseconds. Every power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so any recorded value is reported within 12.5% of its true value;
+ * values above 2^{@value #MAX_EXPONENT} us (about 71 minutes) land in the last bucket. Recording is a few
+ * atomic increments and never allocates.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 32;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(bucketIndex(micros));
+        totalMicros.add(micros);
+        long max;
+        while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)) {
+            // lost the race against another larger value; re-check
+        }
+    }
+
+    /**
+     * Count, mean, max and the usual percentiles, all in microseconds. Percentiles report the upper edge of
+     * the bucket they fall into, capped at the recorded maximum.
+     */
+    Map<String, Object> snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+
+        long max = maxMicros.get();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", count);
+        snapshot.put("mean", count == 0 ? 0 : totalMicros.sum() / count);
+        snapshot.put("p50", Math.min(max, percentile(copy, count, 0.50)));
+        snapshot.put("p90", Math.min(max, percentile(copy, count, 0.90)));
+        snapshot.put("p99", Math.min(max, percentile(copy, count, 0.99)));
+        snapshot.put("p999", Math.min(max, percentile(copy, count, 0.999)));
+        snapshot.put("max", max);
+        return snapshot;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+
+    private static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (SUB_BUCKETS + index % SUB_BUCKETS) * width;
+        return lower + width - 1;
+    }
+}
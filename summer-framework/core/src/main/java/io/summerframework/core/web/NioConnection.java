@@ -0,0 +1,416 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One client socket of the NIO engine. Reading, decoding and socket writes happen on the owning event loop;
+ * worker threads only append response buffers, and are held back once too many bytes are waiting to be
+ * written so a slow client cannot make the server buffer an unbounded response.
+ * <p>
+ * Pipelined requests are decoded one at a time: reading pauses while a request is being handled and the
+ * next buffered request is only dispatched once the previous response has been written, so responses always
+ * leave in request order.
+ */
+final class NioConnection {
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long HIGH_WATER_MARK = 256 * 1024;
+    private static final long LOW_WATER_MARK = 64 * 1024;
+    private static final int MAX_GATHER = 32;
+    private static final ByteBuffer KEEP_ALIVE = ByteBuffer.allocate(0);
+    private static final ByteBuffer CLOSE = ByteBuffer.allocate(0);
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final SocketChannel channel;
+    private final NioServerEngine.EventLoop eventLoop;
+    private final Executor executor;
+    private final ServerEngine.ExchangeHandler handler;
+    private final int maxRequests;
+    private final Runnable onClose;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final HttpRequestDecoder decoder;
+    private final Queue<Object> outbound = new ConcurrentLinkedQueue<>();
+    private final Deque<Object> writing = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition drained = drainLock.newCondition();
+    private SelectionKey key;
+    private boolean processing;
+    private int requests;
+    private long lastActivityNanos = System.nanoTime();
+    private volatile boolean writerWaiting;
+    private volatile boolean closed;
+
+    NioConnection(SocketChannel channel,
+                  NioServerEngine.EventLoop eventLoop,
+                  Executor executor,
+                  ServerEngine.ExchangeHandler handler,
+                  int maxRequests,
+                  int maxBodyBytes,
+                  Runnable onClose) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.executor = executor;
+        this.handler = handler;
+        this.maxRequests = maxRequests;
+        this.decoder = new HttpRequestDecoder(maxBodyBytes);
+        this.onClose = onClose;
+    }
+
+    void register(Selector selector) throws ClosedChannelException {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    void onReady(SelectionKey readyKey) {
+        if (readyKey.isWritable()) {
+            flush();
+        }
+        if (readyKey.isValid() && readyKey.isReadable()) {
+            read();
+        }
+    }
+
+    /**
+     * Queues response bytes for the event loop. Called from worker threads; blocks while the connection has
+     * more than {@link #HIGH_WATER_MARK} bytes waiting on the socket.
+     */
+    void write(ByteBuffer... buffers) throws IOException {
+        if (closed) {
+            throw new IOException("Connection closed");
+        }
+        for (ByteBuffer buffer : buffers) {
+            pendingBytes.addAndGet(buffer.remaining());
+            outbound.add(buffer);
+        }
+        scheduleFlush();
+        awaitDrain();
+    }
+
+    /**
+     * Queues part of a file behind the response bytes written so far. The event loop hands it to the socket
+     * with {@link FileChannel#transferTo} and closes {@code file} once it is sent or the connection closes.
+     */
+    void writeFile(FileChannel file, long position, long count) throws IOException {
+        if (closed) {
+            file.close();
+            throw new IOException("Connection closed");
+        }
+        outbound.add(new FileRegion(file, position, count));
+        scheduleFlush();
+    }
+
+    void complete(boolean keepAlive) {
+        outbound.add(keepAlive ? KEEP_ALIVE : CLOSE);
+        scheduleFlush();
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // the socket is gone either way
+        }
+        releaseFileRegions(writing);
+        releaseFileRegions(outbound);
+        signalDrained();
+        onClose.run();
+    }
+
+    /**
+     * Whether the connection has neither a request in progress nor pending output and has seen no traffic
+     * since {@code nanos}. Only called from the event loop.
+     */
+    boolean idleSince(long nanos) {
+        return !processing && writing.isEmpty() && outbound.isEmpty() && lastActivityNanos - nanos < 0;
+    }
+
+    private void read() {
+        int read;
+        try {
+            read = channel.read(readBuffer);
+        } catch (IOException ex) {
+            close();
+            return;
+        }
+        if (read < 0) {
+            close();
+            return;
+        }
+        lastActivityNanos = System.nanoTime();
+        decodeBuffered();
+    }
+
+    private void decodeBuffered() {
+        HttpRequestDecoder.DecodedRequest request;
+        readBuffer.flip();
+        try {
+            request = decoder.decode(readBuffer);
+        } catch (HttpRequestDecoder.DecodeException ex) {
+            readBuffer.clear();
+            rejectFromLoop(ex.status());
+            return;
+        }
+        readBuffer.compact();
+        if (decoder.takeContinueRequest()) {
+            enqueueFromLoop(ByteBuffer.wrap(CONTINUE));
+        }
+
+        if (request != null) {
+            processing = true;
+            updateInterest(false);
+            dispatch(request);
+        }
+    }
+
+    private void dispatch(HttpRequestDecoder.DecodedRequest request) {
+        requests++;
+        boolean lastRequest = maxRequests > 0 && requests >= maxRequests;
+        NioServerExchange exchange = new NioServerExchange(this, request, !lastRequest);
+        try {
+            executor.execute(() -> {
+                try {
+                    handler.handle(exchange);
+                } catch (Throwable ex) {
+                    exchange.abort();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejectFromLoop(503);
+        }
+    }
+
+    private void rejectFromLoop(int status) {
+        processing = true;
+        String head = "HTTP/1.1 " + status + " " + NioServerExchange.reasonPhrase(status)
+                + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        enqueueFromLoop(ByteBuffer.wrap(head.getBytes(StandardCharsets.US_ASCII)));
+        outbound.add(CLOSE);
+        flush();
+    }
+
+    private void enqueueFromLoop(ByteBuffer buffer) {
+        pendingBytes.addAndGet(buffer.remaining());
+        outbound.add(buffer);
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (eventLoop.inEventLoop()) {
+            flush();
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            eventLoop.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    private void flush() {
+        if (closed) {
+            return;
+        }
+
+        Object next;
+        while ((next = outbound.poll()) != null) {
+            writing.add(next);
+        }
+
+        while (!writing.isEmpty()) {
+            Object head = writing.peek();
+            if (head == KEEP_ALIVE) {
+                writing.poll();
+                onResponseComplete();
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            if (head == CLOSE) {
+                close();
+                return;
+            }
+            if (head instanceof FileRegion region) {
+                boolean sent;
+                try {
+                    sent = region.transferTo(channel);
+                } catch (IOException ex) {
+                    close();
+                    return;
+                }
+                if (!sent) {
+                    updateInterest(true);
+                    return;
+                }
+                writing.poll();
+                continue;
+            }
+
+            int count = 0;
+            for (Object entry : writing) {
+                if (!isData(entry) || count == MAX_GATHER) {
+                    break;
+                }
+                gather[count++] = (ByteBuffer) entry;
+            }
+
+            long written;
+            try {
+                written = channel.write(gather, 0, count);
+            } catch (IOException ex) {
+                close();
+                return;
+            }
+            if (pendingBytes.addAndGet(-written) <= LOW_WATER_MARK) {
+                signalDrained();
+            }
+            while (!writing.isEmpty() && isData(writing.peek()) && !((ByteBuffer) writing.peek()).hasRemaining()) {
+                writing.poll();
+            }
+            if (gather[count - 1].hasRemaining()) {
+                Arrays.fill(gather, 0, count, null);
+                updateInterest(true);
+                return;
+            }
+            Arrays.fill(gather, 0, count, null);
+        }
+        updateInterest(false);
+    }
+
+    private static boolean isData(Object entry) {
+        return entry instanceof ByteBuffer && entry != KEEP_ALIVE && entry != CLOSE;
+    }
+
+    private static void releaseFileRegions(Collection<Object> entries) {
+        for (Object entry : entries) {
+            if (entry instanceof FileRegion region) {
+                region.close();
+            }
+        }
+    }
+
+    private void onResponseComplete() {
+        processing = false;
+        lastActivityNanos = System.nanoTime();
+        if (readBuffer.position() > 0) {
+            decodeBuffered();
+        }
+    }
+
+    private void updateInterest(boolean writePending) {
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        int ops = (processing ? 0 : SelectionKey.OP_READ) | (writePending ? SelectionKey.OP_WRITE : 0);
+        if (key.interestOps() != ops) {
+            key.interestOps(ops);
+        }
+    }
+
+    private void awaitDrain() throws IOException {
+        if (pendingBytes.get() <= HIGH_WATER_MARK || eventLoop.inEventLoop()) {
+            return;
+        }
+        drainLock.lock();
+        try {
+            writerWaiting = true;
+            while (pendingBytes.get() > LOW_WATER_MARK && !closed) {
+                drained.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing response", ex);
+        } finally {
+            writerWaiting = false;
+            drainLock.unlock();
+        }
+        if (closed) {
+            throw new IOException("Connection closed");
+        }
+    }
+
+    private void signalDrained() {
+        if (!writerWaiting) {
+            return;
+        }
+        drainLock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Pending part of a file; owns the channel from the moment it is queued.
+     */
+    private static final class FileRegion {
+
+        private final FileChannel file;
+        private long position;
+        private long remaining;
+
+        private FileRegion(FileChannel file, long position, long count) {
+            this.file = file;
+            this.position = position;
+            this.remaining = count;
+        }
+
+        /**
+         * Sends as much as the socket takes; returns {@code true} once the whole region is written.
+         */
+        private boolean transferTo(WritableByteChannel target) throws IOException {
+            while (remaining > 0) {
+                long written = file.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    if (position >= file.size()) {
+                        throw new IOException("File shrank while being sent");
+                    }
+                    return false;
+                }
+                position += written;
+                remaining -= written;
+            }
+            close();
+            return true;
+        }
+
+        private void close() {
+            try {
+                file.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Selector based HTTP/1.1 engine. A single acceptor thread hands sockets to a small set of event loops which
+ * decode requests from {@code ByteBuffer}s and dispatch complete requests to the route executor, so a
+ * connection only occupies a worker thread while its request is actually being handled.
+ * <p>
+ * Once {@code maxConnections} sockets are open, further accepts are answered with a bare {@code 503} and
+ * closed right away so the kernel backlog keeps draining; event loops close connections that stay idle past
+ * {@code idleTimeoutMillis}.
+ */
+final class NioServerEngine implements ServerEngine {
+
+    private static final byte[] SHED_RESPONSE = ("HTTP/1.1 503 Service Unavailable\r\n"
+            + "Content-Length: 0\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong shedConnections = new AtomicLong();
+    private final AtomicLong idleClosedConnections = new AtomicLong();
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] eventLoops;
+    private Thread acceptor;
+
+    @Override
+    public void start(InetSocketAddress address,
+                      ServerTuningProperties tuning,
+                      Executor executor,
+                      ExchangeHandler handler) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, tuning.socketBacklog());
+
+        eventLoops = new EventLoop[tuning.eventLoopThreads()];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new EventLoop("summer-nio-" + (i + 1), tuning.idleTimeoutMillis(), idleClosedConnections);
+            eventLoops[i].thread.start();
+        }
+
+        acceptor = new Thread(() -> acceptLoop(tuning, executor, handler), "summer-nio-accept");
+        acceptor.start();
+    }
+
+    @Override
+    public void stopAccepting() {
+        if (serverChannel == null) {
+            return;
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+            // the acceptor exits on the resulting ClosedChannelException either way
+        }
+        joinQuietly(acceptor);
+    }
+
+    @Override
+    public void stop() {
+        if (serverChannel == null) {
+            return;
+        }
+        stopAccepting();
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
+        for (EventLoop eventLoop : eventLoops) {
+            joinQuietly(eventLoop.thread);
+        }
+        serverChannel = null;
+        eventLoops = null;
+        acceptor = null;
+    }
+
+    @Override
+    public ConnectionMetrics connectionMetrics() {
+        return new ConnectionMetrics(openConnections.get(), shedConnections.get(), idleClosedConnections.get());
+    }
+
+    private void acceptLoop(ServerTuningProperties tuning, Executor executor, ExchangeHandler handler) {
+        int maxConnections = tuning.maxConnections();
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException ex) {
+                return;
+            } catch (IOException ex) {
+                continue;
+            }
+            if (maxConnections > 0 && openConnections.get() >= maxConnections) {
+                shed(channel);
+                continue;
+            }
+
+            openConnections.incrementAndGet();
+            EventLoop eventLoop = eventLoops[next];
+            next = (next + 1) % eventLoops.length;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                eventLoop.register(new NioConnection(channel, eventLoop, executor, handler,
+                        tuning.maxRequestsPerConnection(), tuning.maxRequestBodyBytes(), openConnections::decrementAndGet));
+            } catch (IOException ex) {
+                openConnections.decrementAndGet();
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    /**
+     * Best-effort {@code 503} for a socket over the connection limit. The write never blocks: a client whose
+     * receive window is already full just sees the close.
+     */
+    private void shed(SocketChannel channel) {
+        shedConnections.incrementAndGet();
+        try {
+            channel.configureBlocking(false);
+            channel.write(ByteBuffer.wrap(SHED_RESPONSE));
+            channel.shutdownOutput();
+        } catch (IOException ignored) {
+            // the socket is closed below either way
+        }
+        closeQuietly(channel);
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join(3000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+    }
+
+    static final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+        private final long idleTimeoutNanos;
+        private final long sweepIntervalMillis;
+        private final AtomicLong idleClosed;
+        private volatile boolean running = true;
+
+        private EventLoop(String name, long idleTimeoutMillis, AtomicLong idleClosed) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, name);
+            this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+            this.sweepIntervalMillis = idleTimeoutMillis > 0
+                    ? Math.max(1, Math.min(MAX_SWEEP_INTERVAL_MILLIS, idleTimeoutMillis / 2))
+                    : 0;
+            this.idleClosed = idleClosed;
+        }
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            if (Thread.currentThread() != thread) {
+                selector.wakeup();
+            }
+        }
+
+        boolean inEventLoop() {
+            return Thread.currentThread() == thread;
+        }
+
+        private void register(NioConnection connection) {
+            execute(() -> {
+                try {
+                    connection.register(selector);
+                } catch (ClosedChannelException ex) {
+                    connection.close();
+                }
+            });
+        }
+
+        private void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long nextSweep = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sweepIntervalMillis);
+            while (running) {
+                try {
+                    selector.select(sweepIntervalMillis);
+                } catch (IOException ex) {
+                    break;
+                }
+                runTasks();
+                if (idleTimeoutNanos > 0 && System.nanoTime() - nextSweep >= 0) {
+                    closeIdleConnections();
+                    nextSweep = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sweepIntervalMillis);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        ((NioConnection) key.attachment()).onReady(key);
+                    }
+                }
+            }
+
+            runTasks();
+            for (SelectionKey key : selector.keys()) {
+                ((NioConnection) key.attachment()).close();
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // selector is discarded with the loop
+            }
+        }
+
+        private void closeIdleConnections() {
+            long idleBefore = System.nanoTime() - idleTimeoutNanos;
+            for (SelectionKey key : selector.keys()) {
+                NioConnection connection = (NioConnection) key.attachment();
+                if (key.isValid() && connection.idleSince(idleBefore)) {
+                    connection.close();
+                    idleClosed.incrementAndGet();
+                }
+            }
+        }
+
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    // a failing connection task must not take the whole loop down
+                }
+            }
+        }
+    }
+}
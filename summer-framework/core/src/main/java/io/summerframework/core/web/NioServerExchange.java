@@ -0,0 +1,349 @@
+package io.summerframework.core.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class NioServerExchange implements ServerExchange {
+
+    private static final int BODY_BUFFER_SIZE = 8 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static volatile CachedDate cachedDate = new CachedDate(0, "");
+
+    private final NioConnection connection;
+    private final HttpRequestDecoder.DecodedRequest request;
+    private final Map<String, String> responseHeaders = new LinkedHashMap<>();
+    private final ResponseBody responseBody = new ResponseBody();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final long dispatchedNanos = System.nanoTime();
+    private boolean keepAlive;
+    private boolean headersSent;
+
+    NioServerExchange(NioConnection connection, HttpRequestDecoder.DecodedRequest request, boolean keepAliveAllowed) {
+        this.connection = connection;
+        this.request = request;
+        this.keepAlive = keepAliveAllowed && request.keepAlive();
+    }
+
+    @Override
+    public long dispatchedNanos() {
+        return dispatchedNanos;
+    }
+
+    @Override
+    public String requestMethod() {
+        return request.method();
+    }
+
+    @Override
+    public String requestPath() {
+        return request.path();
+    }
+
+    @Override
+    public String rawQuery() {
+        return request.rawQuery();
+    }
+
+    @Override
+    public Map<String, List<String>> requestHeaders() {
+        return request.headers();
+    }
+
+    @Override
+    public InputStream requestBody() {
+        return new ByteArrayInputStream(request.body());
+    }
+
+    @Override
+    public byte[] readRequestBody(int maxBytes) {
+        // the decoder already answered larger bodies with 413
+        return request.body();
+    }
+
+    @Override
+    public void setResponseHeader(String name, String value) {
+        responseHeaders.put(name, value);
+    }
+
+    @Override
+    public void sendResponseHeaders(int status, long contentLength) throws IOException {
+        if (headersSent) {
+            throw new IOException("Response headers already sent");
+        }
+        headersSent = true;
+
+        boolean bodyAllowed = status >= 200 && status != 204 && status != 304 && !"HEAD".equals(request.method());
+        boolean chunked = contentLength == 0 && bodyAllowed;
+        if (chunked && !request.http11()) {
+            keepAlive = false;
+        }
+        String connectionHeader = findResponseHeader("Connection");
+        if ("close".equalsIgnoreCase(connectionHeader)) {
+            keepAlive = false;
+        }
+
+        StringBuilder head = new StringBuilder(128 + responseHeaders.size() * 32);
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reasonPhrase(status)).append("\r\n");
+        head.append("Date: ").append(currentDate()).append("\r\n");
+        for (Map.Entry<String, String> header : responseHeaders.entrySet()) {
+            String name = header.getKey();
+            if (name.equalsIgnoreCase("Content-Length")
+                    || name.equalsIgnoreCase("Transfer-Encoding")
+                    || name.equalsIgnoreCase("Connection")) {
+                continue;
+            }
+            head.append(name).append(": ").append(header.getValue()).append("\r\n");
+        }
+        if (contentLength > 0) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        } else if (chunked && request.http11()) {
+            head.append("Transfer-Encoding: chunked\r\n");
+        } else if (contentLength < 0 && status != 204 && status != 304) {
+            head.append("Content-Length: 0\r\n");
+        }
+        if (!keepAlive) {
+            head.append("Connection: close\r\n");
+        } else if (!request.http11()) {
+            head.append("Connection: keep-alive\r\n");
+        }
+        head.append("\r\n");
+
+        responseBody.start(head.toString().getBytes(StandardCharsets.ISO_8859_1),
+                bodyAllowed ? contentLength : -1,
+                chunked && request.http11());
+    }
+
+    @Override
+    public OutputStream responseBody() {
+        return responseBody;
+    }
+
+    @Override
+    public void sendFile(FileChannel file, long position, long count) throws IOException {
+        responseBody.sendFile(file, position, count);
+    }
+
+    @Override
+    public void close() {
+        if (!headersSent) {
+            abort();
+            return;
+        }
+        try {
+            responseBody.close();
+        } catch (IOException ex) {
+            abort();
+        }
+    }
+
+    void abort() {
+        if (completed.compareAndSet(false, true)) {
+            connection.complete(false);
+        }
+    }
+
+    static String reasonPhrase(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 206 -> "Partial Content";
+            case 301 -> "Moved Permanently";
+            case 302 -> "Found";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 408 -> "Request Timeout";
+            case 413 -> "Payload Too Large";
+            case 416 -> "Range Not Satisfiable";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            case 504 -> "Gateway Timeout";
+            case 505 -> "HTTP Version Not Supported";
+            default -> "Status " + status;
+        };
+    }
+
+    private String findResponseHeader(String name) {
+        for (Map.Entry<String, String> header : responseHeaders.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String currentDate() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedDate date = cachedDate;
+        if (date.second != second) {
+            String formatted = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+            date = new CachedDate(second, formatted);
+            cachedDate = date;
+        }
+        return date.value;
+    }
+
+    private record CachedDate(long second, String value) {
+    }
+
+    /**
+     * Buffers body bytes and hands them to the connection in {@link #BODY_BUFFER_SIZE} slices; the response
+     * head is held back until the first slice so small responses leave in a single socket write.
+     */
+    private final class ResponseBody extends OutputStream {
+
+        private byte[] head;
+        private byte[] buffer;
+        private int count;
+        private long declaredLength;
+        private long written;
+        private boolean chunked;
+        private boolean closed;
+
+        private void start(byte[] head, long declaredLength, boolean chunked) {
+            this.head = head;
+            this.declaredLength = declaredLength;
+            this.chunked = chunked;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            ensureWritable(1);
+            reserve();
+            buffer[count++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            ensureWritable(length);
+            while (length > 0) {
+                reserve();
+                int slice = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, slice);
+                count += slice;
+                offset += slice;
+                length -= slice;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (head != null || count > 0) {
+                flushBuffer();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (declaredLength > 0 && written != declaredLength) {
+                keepAlive = false;
+            }
+            flushBuffer();
+            if (chunked) {
+                connection.write(ByteBuffer.wrap(LAST_CHUNK));
+            }
+            if (completed.compareAndSet(false, true)) {
+                connection.complete(keepAlive);
+            }
+        }
+
+        private void sendFile(FileChannel file, long position, long count) throws IOException {
+            try {
+                ensureWritable(count);
+            } catch (IOException ex) {
+                file.close();
+                throw ex;
+            }
+            if (count == 0) {
+                file.close();
+                return;
+            }
+            flushBuffer();
+            if (chunked) {
+                connection.write(ByteBuffer.wrap((Long.toHexString(count) + "\r\n").getBytes(StandardCharsets.US_ASCII)));
+                connection.writeFile(file, position, count);
+                connection.write(ByteBuffer.wrap(CRLF));
+            } else {
+                connection.writeFile(file, position, count);
+            }
+        }
+
+        private void ensureWritable(long length) throws IOException {
+            if (!headersSent) {
+                throw new IOException("Response headers have not been sent");
+            }
+            if (closed) {
+                throw new IOException("Response body already closed");
+            }
+            if (declaredLength < 0 && length > 0) {
+                throw new IOException("Response does not allow a body");
+            }
+            if (declaredLength > 0 && written + length > declaredLength) {
+                throw new IOException("Too many bytes for declared Content-Length " + declaredLength);
+            }
+            written += length;
+        }
+
+        private void reserve() throws IOException {
+            if (buffer == null) {
+                buffer = new byte[BODY_BUFFER_SIZE];
+            } else if (count == buffer.length) {
+                flushBuffer();
+                buffer = new byte[BODY_BUFFER_SIZE];
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            ByteBuffer headBuffer = head != null ? ByteBuffer.wrap(head) : null;
+            head = null;
+            ByteBuffer data = count > 0 ? ByteBuffer.wrap(buffer, 0, count) : null;
+            if (data != null) {
+                buffer = null;
+                count = 0;
+            }
+
+            if (data != null && chunked) {
+                ByteBuffer size = ByteBuffer.wrap((Integer.toHexString(data.remaining()) + "\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                if (headBuffer != null) {
+                    connection.write(headBuffer, size, data, ByteBuffer.wrap(CRLF));
+                } else {
+                    connection.write(size, data, ByteBuffer.wrap(CRLF));
+                }
+            } else if (data != null) {
+                if (headBuffer != null) {
+                    connection.write(headBuffer, data);
+                } else {
+                    connection.write(data);
+                }
+            } else if (headBuffer != null) {
+                connection.write(headBuffer);
+            }
+        }
+    }
+}
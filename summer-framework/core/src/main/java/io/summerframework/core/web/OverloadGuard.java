@@ -1,20 +1,26 @@
 package io.summerframework.core.web;
 
-import java.util.concurrent.Semaphore;
+/**
+ * Admission control in front of route handling. {@link #tryEnter()} either admits a request or rejects it
+ * with {@code 503}; every admitted request reports back through {@link #exit(long)} with its latency, which
+ * adaptive implementations use to move the limit.
+ */
+interface OverloadGuard {
 
-final class OverloadGuard {
+    boolean tryEnter();
 
-    private final Semaphore semaphore;
+    void exit(long elapsedNanos);
 
-    OverloadGuard(int maxConcurrentRequests) {
-        this.semaphore = new Semaphore(maxConcurrentRequests);
-    }
+    int limit();
 
-    boolean tryEnter() {
-        return semaphore.tryAcquire();
-    }
+    int inFlight();
+
+    long rejected();
 
-    void exit() {
-        semaphore.release();
+    static OverloadGuard create(ServerTuningProperties tuning) {
+        return switch (tuning.concurrencyLimit()) {
+            case FIXED -> new FixedOverloadGuard(tuning.maxConcurrentRequests());
+            case ADAPTIVE -> new AdaptiveOverloadGuard(tuning.minConcurrentRequests(), tuning.maxConcurrentRequests());
+        };
     }
 }
@@ -0,0 +1,8 @@
+package io.summerframework.core.web;
+
+/**
+ * Point-in-time view of the server's admission control: the current concurrency limit (fixed or adapted),
+ * requests in flight and the total number of requests rejected with {@code 503}.
+ */
+public record OverloadMetrics(ServerTuningProperties.ConcurrencyLimit mode, int limit, int inFlight, long rejected) {
+}
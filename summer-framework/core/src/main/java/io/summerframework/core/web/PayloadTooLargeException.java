@@ -0,0 +1,13 @@
+package io.summerframework.core.web;
+
+/**
+ * A request body over {@link ServerTuningProperties#maxRequestBodyBytes()}; answered with {@code 413}.
+ */
+final class PayloadTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package io.summerframework.core.web;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Stamps the time each request is handed to the request executor for the JDK engine, whose {@code HttpServer}
+ * submits its own task objects and gives no place to carry that time. The stamp is kept in a per-thread slot
+ * for the duration of the task, where the exchange created on that thread picks it up as
+ * {@link ServerExchange#dispatchedNanos()}.
+ * <p>
+ * This wrapper allocates one task per request, and with virtual threads one slot per request as well; the
+ * NIO engine records the time on its exchanges and needs neither.
+ */
+final class QueueWaitExecutor implements Executor {
+
+    private static final ThreadLocal<long[]> DISPATCHED = new ThreadLocal<>();
+
+    private final Executor delegate;
+
+    QueueWaitExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Dispatch time of the task running on the current thread, or {@code 0} outside a wrapped task.
+     */
+    static long dispatchedNanos() {
+        long[] slot = DISPATCHED.get();
+        return slot != null ? slot[0] : 0L;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submitted = System.nanoTime();
+        delegate.execute(() -> {
+            long[] slot = DISPATCHED.get();
+            if (slot == null) {
+                slot = new long[1];
+                DISPATCHED.set(slot);
+            }
+            slot[0] = submitted;
+            try {
+                command.run();
+            } finally {
+                slot[0] = 0L;
+            }
+        });
+    }
+}
@@ -1,8 +1,8 @@
 package io.summerframework.core.web;
 
-final class RequestTimeoutException extends RuntimeException {
+public class RequestTimeoutException extends RuntimeException {
 
-    RequestTimeoutException(String message) {
+    public RequestTimeoutException(String message) {
         super(message);
     }
 }
@@ -0,0 +1,281 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Negotiates {@code gzip}/{@code deflate} from {@code Accept-Encoding} and compresses response bodies with
+ * pooled {@link Deflater}s, so the native zlib state is reused across requests instead of being allocated
+ * and freed for each one. The gzip framing is written here around a raw deflate stream because
+ * {@code GZIPOutputStream} always creates its own deflater.
+ */
+final class ResponseCompressor {
+
+    enum Encoding {
+        GZIP("gzip", true),
+        DEFLATE("deflate", false);
+
+        private final String token;
+        private final boolean nowrap;
+
+        Encoding(String token, boolean nowrap) {
+            this.token = token;
+            this.nowrap = nowrap;
+        }
+
+        String token() {
+            return token;
+        }
+    }
+
+    private static final int MAX_POOLED_DEFLATERS = 64;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final int level;
+    private final int minResponseSize;
+    private final DeflaterPool gzipDeflaters;
+    private final DeflaterPool deflateDeflaters;
+
+    ResponseCompressor(int level, int minResponseSize) {
+        this.level = level;
+        this.minResponseSize = minResponseSize;
+        this.gzipDeflaters = new DeflaterPool(Encoding.GZIP);
+        this.deflateDeflaters = new DeflaterPool(Encoding.DEFLATE);
+    }
+
+    int minResponseSize() {
+        return minResponseSize;
+    }
+
+    /**
+     * Picks the encoding with the highest quality value in an {@code Accept-Encoding} header, preferring gzip
+     * on ties; {@code null} when neither is acceptable.
+     */
+    static Encoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            int parameters = part.indexOf(';');
+            String coding = (parameters >= 0 ? part.substring(0, parameters) : part).trim().toLowerCase(Locale.ROOT);
+            double quality = parameters >= 0 ? quality(part.substring(parameters + 1)) : 1;
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, quality);
+                case "deflate" -> deflate = Math.max(deflate, quality);
+                case "*" -> wildcard = quality;
+                default -> {
+                    // other codings are never produced
+                }
+            }
+        }
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? Encoding.GZIP : Encoding.DEFLATE;
+    }
+
+    /**
+     * Compresses {@code input} completely into {@code output}. Returns the compressed length, or {@code -1}
+     * when the result does not fit, in which case the caller streams it instead.
+     */
+    int compress(Encoding encoding, byte[] input, int length, byte[] output) {
+        int trailerSize = encoding == Encoding.GZIP ? GZIP_TRAILER_SIZE : 0;
+        int position = 0;
+        if (encoding == Encoding.GZIP) {
+            System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER_SIZE);
+            position = GZIP_HEADER_SIZE;
+        }
+
+        DeflaterPool pool = pool(encoding);
+        Deflater deflater = pool.acquire();
+        try {
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                int space = output.length - trailerSize - position;
+                if (space <= 0) {
+                    return -1;
+                }
+                position += deflater.deflate(output, position, space);
+            }
+        } finally {
+            pool.release(deflater);
+        }
+
+        if (encoding == Encoding.GZIP) {
+            CRC32 crc = new CRC32();
+            crc.update(input, 0, length);
+            writeIntLE(output, position, (int) crc.getValue());
+            writeIntLE(output, position + 4, length);
+            position += GZIP_TRAILER_SIZE;
+        }
+        return position;
+    }
+
+    /**
+     * Wraps {@code target} in a compressing stream; closing it finishes the encoding, closes {@code target}
+     * and hands the deflater back to the pool. {@code buffer} holds compressed output between writes.
+     */
+    OutputStream compressing(Encoding encoding, OutputStream target, byte[] buffer) {
+        return new CompressingStream(encoding, pool(encoding), target, buffer);
+    }
+
+    private DeflaterPool pool(Encoding encoding) {
+        return encoding == Encoding.GZIP ? gzipDeflaters : deflateDeflaters;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static void writeIntLE(byte[] target, int offset, int value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+
+    /**
+     * Bounded pool of deflaters for one encoding. Deflaters that do not fit back are ended right away so
+     * their native memory does not wait for finalization.
+     */
+    private final class DeflaterPool {
+
+        private final Encoding encoding;
+        private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pooled = new AtomicInteger();
+
+        private DeflaterPool(Encoding encoding) {
+            this.encoding = encoding;
+        }
+
+        private Deflater acquire() {
+            Deflater deflater = deflaters.poll();
+            if (deflater == null) {
+                return new Deflater(level, encoding.nowrap);
+            }
+            pooled.decrementAndGet();
+            return deflater;
+        }
+
+        private void release(Deflater deflater) {
+            deflater.reset();
+            if (pooled.incrementAndGet() <= MAX_POOLED_DEFLATERS) {
+                deflaters.offer(deflater);
+            } else {
+                pooled.decrementAndGet();
+                deflater.end();
+            }
+        }
+    }
+
+    private static final class CompressingStream extends OutputStream {
+
+        private final Encoding encoding;
+        private final DeflaterPool pool;
+        private final OutputStream target;
+        private final byte[] buffer;
+        private final CRC32 crc;
+        private Deflater deflater;
+        private long size;
+        private boolean closed;
+
+        private CompressingStream(Encoding encoding, DeflaterPool pool, OutputStream target, byte[] buffer) {
+            this.encoding = encoding;
+            this.pool = pool;
+            this.target = target;
+            this.buffer = buffer;
+            this.crc = encoding == Encoding.GZIP ? new CRC32() : null;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[]{(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            Deflater current = deflater();
+            if (crc != null) {
+                crc.update(bytes, offset, length);
+            }
+            size += length;
+            current.setInput(bytes, offset, length);
+            while (!current.needsInput()) {
+                drain(current);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            Deflater current = deflater();
+            try {
+                current.finish();
+                while (!current.finished()) {
+                    drain(current);
+                }
+                if (crc != null) {
+                    byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+                    writeIntLE(trailer, 0, (int) crc.getValue());
+                    writeIntLE(trailer, 4, (int) size);
+                    target.write(trailer);
+                }
+            } finally {
+                pool.release(current);
+                deflater = null;
+            }
+            target.close();
+        }
+
+        private Deflater deflater() throws IOException {
+            if (deflater == null) {
+                deflater = pool.acquire();
+                if (encoding == Encoding.GZIP) {
+                    target.write(GZIP_HEADER);
+                }
+            }
+            return deflater;
+        }
+
+        private void drain(Deflater current) throws IOException {
+            int count = current.deflate(buffer, 0, buffer.length);
+            if (count > 0) {
+                target.write(buffer, 0, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Serializes response payloads directly onto the exchange. Documents that fit into one pooled buffer are
+ * sent with a {@code Content-Length}; larger ones switch to chunked transfer encoding the moment the buffer
+ * overflows and are streamed out buffer by buffer. With a {@link ResponseCompressor} the same applies to the
+ * compressed bytes: small documents are compressed in one step into a second pooled buffer, and streamed
+ * documents are compressed on the way out.
+ */
+final class ResponseWriter {
+
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 256;
+
+    private final Json json;
+    private final ResponseCompressor compressor;
+    private final BufferPool bufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+    ResponseWriter(Json json) {
+        this(json, null);
+    }
+
+    ResponseWriter(Json json, ResponseCompressor compressor) {
+        this.json = json;
+        this.compressor = compressor;
+    }
+
+    void writeJson(ServerExchange exchange, int statusCode, Object payload) throws IOException {
+        exchange.setResponseHeader("Content-Type", JSON_CONTENT_TYPE);
+        ResponseCompressor.Encoding encoding = null;
+        if (compressor != null) {
+            exchange.setResponseHeader("Vary", "Accept-Encoding");
+            encoding = ResponseCompressor.negotiate(exchange.requestHeader("Accept-Encoding"));
+        }
+
+        byte[] buffer = bufferPool.acquire();
+        try {
+            ChunkedOnOverflow body = new ChunkedOnOverflow(exchange, statusCode, encoding);
+            JsonWriter writer = new JsonWriter(body, buffer);
+            try {
+                json.write(payload, writer);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            if (!writer.spilled()) {
+                if (encoding == null || writer.size() < compressor.minResponseSize()) {
+                    send(exchange, statusCode, writer.buffer(), writer.size());
+                    return;
+                }
+                if (sendCompressed(exchange, statusCode, encoding, writer.buffer(), writer.size())) {
+                    return;
+                }
+            }
+
+            try {
+                writer.flush();
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            } finally {
+                body.close();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    void writeNoContent(ServerExchange exchange) throws IOException {
+        exchange.setResponseHeader("Content-Length", "0");
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+
+    private static void send(ServerExchange exchange, int statusCode, byte[] bytes, int length) throws IOException {
+        exchange.sendResponseHeaders(statusCode, length);
+        try (OutputStream outputStream = exchange.responseBody()) {
+            outputStream.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Sends a buffered document compressed with a {@code Content-Length}; returns {@code false} without
+     * writing anything if the compressed form does not fit into one buffer.
+     */
+    private boolean sendCompressed(ServerExchange exchange,
+                                   int statusCode,
+                                   ResponseCompressor.Encoding encoding,
+                                   byte[] bytes,
+                                   int length) throws IOException {
+        byte[] compressed = bufferPool.acquire();
+        try {
+            int compressedLength = compressor.compress(encoding, bytes, length, compressed);
+            if (compressedLength < 0) {
+                return false;
+            }
+            exchange.setResponseHeader("Content-Encoding", encoding.token());
+            send(exchange, statusCode, compressed, compressedLength);
+            return true;
+        } finally {
+            bufferPool.release(compressed);
+        }
+    }
+
+    /**
+     * Starts a chunked response on the first write; only reached once a payload outgrows its buffer, or its
+     * compressed form does.
+     */
+    private final class ChunkedOnOverflow extends OutputStream {
+
+        private final ServerExchange exchange;
+        private final int statusCode;
+        private final ResponseCompressor.Encoding encoding;
+        private OutputStream target;
+        private byte[] compressionBuffer;
+
+        private ChunkedOnOverflow(ServerExchange exchange, int statusCode, ResponseCompressor.Encoding encoding) {
+            this.exchange = exchange;
+            this.statusCode = statusCode;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            target().write(value);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            target().write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                target().close();
+            } finally {
+                if (compressionBuffer != null) {
+                    bufferPool.release(compressionBuffer);
+                    compressionBuffer = null;
+                }
+            }
+        }
+
+        private OutputStream target() throws IOException {
+            if (target == null) {
+                if (encoding != null) {
+                    exchange.setResponseHeader("Content-Encoding", encoding.token());
+                }
+                exchange.sendResponseHeaders(statusCode, 0);
+                target = exchange.responseBody();
+                if (encoding != null) {
+                    compressionBuffer = bufferPool.acquire();
+                    target = compressor.compressing(encoding, target, compressionBuffer);
+                }
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.summerframework.core.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route permits declared with {@code @Bulkhead}. Up to {@code queue} requests wait in arrival order for a
+ * permit, each for at most {@code maxWaitMillis} or the request timeout, whichever is shorter; anything beyond
+ * that is rejected right away. A waiting request parks its HTTP thread, so the wait is always bounded.
+ */
+final class RouteBulkhead {
+
+    private final int maxConcurrent;
+    private final int queue;
+    private final long maxWaitMillis;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    RouteBulkhead(int maxConcurrent, int queue, long maxWaitMillis, Executor executor) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Bulkhead maxConcurrent must be > 0");
+        }
+        if (queue < 0) {
+            throw new IllegalArgumentException("Bulkhead queue must be >= 0");
+        }
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("Bulkhead maxWaitMillis must be > 0");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.queue = queue;
+        this.maxWaitMillis = maxWaitMillis;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Takes a permit, waiting when the request got a queue slot for at most the bulkhead's own limit or
+     * {@code timeoutMillis} ({@code 0} means no request timeout), whichever is shorter.
+     */
+    boolean tryEnter(long timeoutMillis) {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > queue) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            long waitMillis = timeoutMillis > 0 ? Math.min(timeoutMillis, maxWaitMillis) : maxWaitMillis;
+            if (permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    void exit() {
+        permits.release();
+    }
+
+    /**
+     * Executor the handler runs on, or {@code null} to run it on the HTTP thread.
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("maxConcurrent", maxConcurrent);
+        snapshot.put("queue", queue);
+        snapshot.put("maxWaitMillis", maxWaitMillis);
+        snapshot.put("inFlight", maxConcurrent - permits.availablePermits());
+        snapshot.put("waiting", waiting.get());
+        snapshot.put("rejected", rejected.sum());
+        return snapshot;
+    }
+}
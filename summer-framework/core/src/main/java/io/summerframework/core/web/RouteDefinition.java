@@ -5,17 +5,18 @@ import io.summerframework.core.web.annotation.RequestBody;
 import io.summerframework.core.web.annotation.RequestHeader;
 import io.summerframework.core.web.annotation.RequestParam;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.concurrent.Flow;
 
 final class RouteDefinition {
 
@@ -24,17 +25,31 @@ final class RouteDefinition {
     private final Object controller;
     private final Method handlerMethod;
     private final BodyBinder binder;
-    private final List<ParameterBinding> parameterBindings;
     private final String[] templateSegments;
+    private final ArgumentResolver[] argumentResolvers;
+    private final MethodHandle invoker;
+    private final RouteBulkhead bulkhead;
+    private volatile RouteMetrics metrics;
 
-    RouteDefinition(HttpMethod method, String path, Object controller, Method handlerMethod) {
+    RouteDefinition(HttpMethod method, String path, Object controller, Method handlerMethod, BodyBinder binder) {
+        this(method, path, controller, handlerMethod, binder, null);
+    }
+
+    RouteDefinition(HttpMethod method,
+                    String path,
+                    Object controller,
+                    Method handlerMethod,
+                    BodyBinder binder,
+                    RouteBulkhead bulkhead) {
         this.method = method;
         this.path = path;
         this.controller = controller;
         this.handlerMethod = handlerMethod;
-        this.binder = new BodyBinder();
+        this.binder = binder;
         this.templateSegments = splitPath(path);
-        this.parameterBindings = resolveBindings(handlerMethod, templateVariableNames());
+        this.argumentResolvers = compileResolvers(resolveBindings(handlerMethod, templateVariableNames()));
+        this.invoker = compileInvoker();
+        this.bulkhead = bulkhead;
     }
 
     HttpMethod method() {
@@ -45,80 +60,109 @@ final class RouteDefinition {
         return path;
     }
 
-    Map<String, String> matchPath(String requestPath) {
-        String[] requestSegments = splitPath(requestPath);
-        if (requestSegments.length != templateSegments.length) {
-            return null;
-        }
+    String[] templateSegments() {
+        return templateSegments;
+    }
 
-        Map<String, String> variables = new LinkedHashMap<>();
-        for (int i = 0; i < templateSegments.length; i++) {
-            String templateSegment = templateSegments[i];
-            String requestSegment = requestSegments[i];
+    /**
+     * The route's own permits from {@code @Bulkhead}, or {@code null} when it only shares the server limit.
+     */
+    RouteBulkhead bulkhead() {
+        return bulkhead;
+    }
 
-            if (isVariableSegment(templateSegment)) {
-                variables.put(variableName(templateSegment), requestSegment);
-                continue;
-            }
+    /**
+     * Per-route counters and histograms, or {@code null} unless metrics were enabled for the server.
+     */
+    RouteMetrics metrics() {
+        return metrics;
+    }
 
-            if (!templateSegment.equals(requestSegment)) {
-                return null;
-            }
-        }
+    /**
+     * Whether the handler is declared to answer with an event stream.
+     */
+    boolean streaming() {
+        Class<?> returnType = handlerMethod.getReturnType();
+        return SseEmitter.class.isAssignableFrom(returnType) || Flow.Publisher.class.isAssignableFrom(returnType);
+    }
 
-        return variables;
+    void enableMetrics() {
+        if (metrics == null) {
+            metrics = new RouteMetrics();
+        }
     }
 
-    Object invoke(String body,
-                  Map<String, String> pathVariables,
-                  Map<String, List<String>> queryParameters,
-                  Map<String, List<String>> headers) {
-        Object[] args = new Object[handlerMethod.getParameterCount()];
-
-        for (ParameterBinding binding : parameterBindings) {
-            Object arg = switch (binding.kind()) {
-                case BODY -> binder.bind(body, binding.type());
-                case PATH_VARIABLE -> resolvePathVariable(binding, pathVariables);
-                case REQUEST_PARAM -> resolveRequestParam(binding, queryParameters);
-                case REQUEST_HEADER -> resolveRequestHeader(binding, headers);
-            };
-            args[binding.index()] = arg;
+    Object invoke(RouteRequest request) {
+        Object[] args = new Object[argumentResolvers.length];
+        for (int i = 0; i < argumentResolvers.length; i++) {
+            args[i] = argumentResolvers[i].resolve(request);
         }
 
+        try {
+            return invoker.invokeExact(args);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Binds the handler to its controller once and adapts it to a single {@code (Object[])Object} shape, so
+     * every request goes through the same exact-typed handle without reflective access checks.
+     */
+    private MethodHandle compileInvoker() {
         try {
             handlerMethod.setAccessible(true);
-            return handlerMethod.invoke(controller, args);
-        } catch (IllegalAccessException ex) {
-            throw new IllegalStateException("Failed to access route method: " + handlerMethod, ex);
-        } catch (InvocationTargetException ex) {
-            Throwable targetException = ex.getTargetException();
-            if (targetException instanceof RuntimeException runtimeException) {
-                throw runtimeException;
+            MethodHandle handle = MethodHandles.lookup().unreflect(handlerMethod);
+            if (!Modifier.isStatic(handlerMethod.getModifiers())) {
+                handle = handle.bindTo(controller);
             }
-            throw new IllegalStateException(targetException.getMessage(), targetException);
+            return handle
+                    .asSpreader(Object[].class, handlerMethod.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalStateException("Failed to access route method: " + handlerMethod, ex);
         }
     }
 
-    private Object resolvePathVariable(ParameterBinding binding, Map<String, String> pathVariables) {
-        String raw = pathVariables.get(binding.name());
+    private ArgumentResolver[] compileResolvers(List<ParameterBinding> bindings) {
+        ArgumentResolver[] resolvers = new ArgumentResolver[bindings.size()];
+        for (ParameterBinding binding : bindings) {
+            ValueConverter converter = ValueConverter.forType(binding.elementType());
+            resolvers[binding.index()] = switch (binding.kind()) {
+                case BODY -> {
+                    binder.prepare(binding.type());
+                    yield request -> binder.bind(request.body(), binding.type());
+                }
+                case PATH_VARIABLE -> request -> resolvePathVariable(binding, converter, request.pathVariables());
+                case REQUEST_PARAM -> request -> resolveMultiValueSource(
+                        "request param", binding, converter, request.queryParameterValues(binding.name()));
+                case REQUEST_HEADER -> {
+                    String headerName = binding.name().toLowerCase(Locale.ROOT);
+                    yield request -> resolveMultiValueSource(
+                            "request header", binding, converter, request.headerValues(headerName));
+                }
+            };
+        }
+        return resolvers;
+    }
+
+    private Object resolvePathVariable(ParameterBinding binding, ValueConverter converter, String[] pathVariables) {
+        String raw = pathVariables[binding.pathVariableIndex()];
         if (raw == null) {
             throw new BadRequestException("Missing path variable '" + binding.name() + "'");
         }
         if (binding.collection()) {
             throw new BadRequestException("@PathVariable does not support collection binding for '" + binding.name() + "'");
         }
-        return binder.bindScalar(raw, binding.type(), binding.name());
+        return converter.convert(raw, binding.name());
     }
 
-    private Object resolveRequestParam(ParameterBinding binding, Map<String, List<String>> queryParameters) {
-        return resolveMultiValueSource("request param", binding, queryParameters.get(binding.name()));
-    }
-
-    private Object resolveRequestHeader(ParameterBinding binding, Map<String, List<String>> headers) {
-        return resolveMultiValueSource("request header", binding, headers.get(binding.name().toLowerCase()));
-    }
-
-    private Object resolveMultiValueSource(String sourceName, ParameterBinding binding, List<String> rawValues) {
+    private Object resolveMultiValueSource(String sourceName,
+                                           ParameterBinding binding,
+                                           ValueConverter converter,
+                                           List<String> rawValues) {
         List<String> values = rawValues;
 
         if (values == null || values.isEmpty()) {
@@ -139,15 +183,15 @@ final class RouteDefinition {
         if (binding.collection()) {
             List<Object> converted = new ArrayList<>(values.size());
             for (String value : values) {
-                converted.add(binder.bindScalar(value, binding.elementType(), binding.name()));
+                converted.add(converter.convert(value, binding.name()));
             }
             return converted;
         }
 
-        return binder.bindScalar(values.get(0), binding.type(), binding.name());
+        return converter.convert(values.get(0), binding.name());
     }
 
-    private List<ParameterBinding> resolveBindings(Method method, Set<String> templateVariableNames) {
+    private List<ParameterBinding> resolveBindings(Method method, List<String> templateVariableNames) {
         Parameter[] parameters = method.getParameters();
         List<ParameterBinding> bindings = new ArrayList<>(parameters.length);
         int requestBodyCount = 0;
@@ -184,10 +228,11 @@ final class RouteDefinition {
 
             if (pathVariable != null) {
                 String name = resolveParameterName(pathVariable.value(), parameter, "@PathVariable");
-                if (!templateVariableNames.contains(name)) {
+                int variableIndex = templateVariableNames.indexOf(name);
+                if (variableIndex < 0) {
                     throw new IllegalStateException("Path variable '" + name + "' is not present in route template " + path);
                 }
-                bindings.add(ParameterBinding.pathVariable(i, parameter.getType(), name));
+                bindings.add(ParameterBinding.pathVariable(i, parameter.getType(), name, variableIndex));
                 continue;
             }
 
@@ -247,11 +292,18 @@ final class RouteDefinition {
         throw new IllegalStateException("Unsupported collection element type for parameter: " + parameter);
     }
 
-    private Set<String> templateVariableNames() {
-        return java.util.Arrays.stream(templateSegments)
-                .filter(this::isVariableSegment)
-                .map(this::variableName)
-                .collect(Collectors.toSet());
+    private List<String> templateVariableNames() {
+        List<String> names = new ArrayList<>();
+        for (String segment : templateSegments) {
+            if (isVariableSegment(segment)) {
+                String name = variableName(segment);
+                if (names.contains(name)) {
+                    throw new IllegalStateException("Path variable '" + name + "' is declared twice in route template " + path);
+                }
+                names.add(name);
+            }
+        }
+        return names;
     }
 
     private String resolveParameterName(String explicitName, Parameter parameter, String annotationName) {
@@ -264,7 +316,7 @@ final class RouteDefinition {
         return parameter.getName();
     }
 
-    private boolean isVariableSegment(String segment) {
+    static boolean isVariableSegment(String segment) {
         return segment.startsWith("{") && segment.endsWith("}") && segment.length() > 2;
     }
 
@@ -289,6 +341,11 @@ final class RouteDefinition {
         return count;
     }
 
+    @FunctionalInterface
+    private interface ArgumentResolver {
+        Object resolve(RouteRequest request);
+    }
+
     private enum BindingKind {
         BODY,
         PATH_VARIABLE,
@@ -304,14 +361,15 @@ final class RouteDefinition {
             boolean collection,
             String name,
             boolean required,
-            String defaultValue
+            String defaultValue,
+            int pathVariableIndex
     ) {
         static ParameterBinding body(int index, Class<?> type) {
-            return new ParameterBinding(BindingKind.BODY, index, type, type, false, null, false, null);
+            return new ParameterBinding(BindingKind.BODY, index, type, type, false, null, false, null, -1);
         }
 
-        static ParameterBinding pathVariable(int index, Class<?> type, String name) {
-            return new ParameterBinding(BindingKind.PATH_VARIABLE, index, type, type, false, name, true, null);
+        static ParameterBinding pathVariable(int index, Class<?> type, String name, int pathVariableIndex) {
+            return new ParameterBinding(BindingKind.PATH_VARIABLE, index, type, type, false, name, true, null, pathVariableIndex);
         }
 
         static ParameterBinding requestParam(
@@ -323,7 +381,7 @@ final class RouteDefinition {
                 boolean required,
                 String defaultValue
         ) {
-            return new ParameterBinding(BindingKind.REQUEST_PARAM, index, type, elementType, collection, name, required, defaultValue);
+            return new ParameterBinding(BindingKind.REQUEST_PARAM, index, type, elementType, collection, name, required, defaultValue, -1);
         }
 
         static ParameterBinding requestHeader(
@@ -335,7 +393,7 @@ final class RouteDefinition {
                 boolean required,
                 String defaultValue
         ) {
-            return new ParameterBinding(BindingKind.REQUEST_HEADER, index, type, elementType, collection, name, required, defaultValue);
+            return new ParameterBinding(BindingKind.REQUEST_HEADER, index, type, elementType, collection, name, required, defaultValue, -1);
         }
     }
 }
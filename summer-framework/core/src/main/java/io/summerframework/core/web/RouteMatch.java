@@ -1,6 +1,4 @@
 package io.summerframework.core.web;
 
-import java.util.Map;
-
-record RouteMatch(RouteDefinition route, Map<String, String> pathVariables) {
+record RouteMatch(RouteDefinition route, String[] pathVariables) {
 }
@@ -0,0 +1,72 @@
+package io.summerframework.core.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of a single route. Updated by request threads without locks or
+ * allocation; {@link #snapshot()} builds the JSON-ready view served on the metrics path.
+ */
+final class RouteMetrics {
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final LongAdder requests = new LongAdder();
+    private final AtomicLongArray statuses = new AtomicLongArray(MAX_STATUS - MIN_STATUS + 1);
+    private final LongAdder overloadRejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram handlerLatency = new LatencyHistogram();
+
+    /**
+     * @param queueWaitNanos time the request waited for a thread between dispatch and its handler starting
+     */
+    void recordQueueWait(long queueWaitNanos) {
+        queueWait.recordNanos(queueWaitNanos);
+    }
+
+    void recordOverloadRejection() {
+        overloadRejections.increment();
+    }
+
+    /**
+     * @param handlerNanos time spent in the route method, or {@code -1} if it was never invoked
+     */
+    void record(int status, long elapsedNanos, long handlerNanos) {
+        requests.increment();
+        if (status >= MIN_STATUS && status <= MAX_STATUS) {
+            statuses.incrementAndGet(status - MIN_STATUS);
+        }
+        if (status == 504) {
+            timeouts.increment();
+        }
+        latency.recordNanos(elapsedNanos);
+        if (handlerNanos >= 0) {
+            handlerLatency.recordNanos(handlerNanos);
+        }
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> statusCounts = new LinkedHashMap<>();
+        for (int i = 0; i < statuses.length(); i++) {
+            long count = statuses.get(i);
+            if (count > 0) {
+                statusCounts.put(Integer.toString(i + MIN_STATUS), count);
+            }
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("requests", requests.sum());
+        snapshot.put("statuses", statusCounts);
+        snapshot.put("overloadRejections", overloadRejections.sum());
+        snapshot.put("timeouts", timeouts.sum());
+        snapshot.put("queueWaitMicros", queueWait.snapshot());
+        snapshot.put("latencyMicros", latency.snapshot());
+        snapshot.put("handlerMicros", handlerLatency.snapshot());
+        return snapshot;
+    }
+}
@@ -0,0 +1,132 @@
+package io.summerframework.core.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Request data handed to a route's argument resolvers. Query parameters and headers are not collected up
+ * front: each lookup scans the raw query once for the one name a binding asks for and decodes only the
+ * values that match, and headers are read straight from the engine's own storage. Routes without
+ * {@code @RequestParam} or {@code @RequestHeader} parameters never touch either.
+ */
+final class RouteRequest {
+
+    private final byte[] body;
+    private final String[] pathVariables;
+    private final String rawQuery;
+    private final Function<String, List<String>> headers;
+
+    RouteRequest(byte[] body, String[] pathVariables, String rawQuery, Function<String, List<String>> headers) {
+        this.body = body;
+        this.pathVariables = pathVariables;
+        this.rawQuery = rawQuery;
+        this.headers = headers;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    String[] pathVariables() {
+        return pathVariables;
+    }
+
+    /**
+     * Decoded values of query parameter {@code name} in request order, or {@code null} when it is absent.
+     */
+    List<String> queryParameterValues(String name) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return null;
+        }
+        List<String> values = null;
+        int length = rawQuery.length();
+        int start = 0;
+        while (start < length) {
+            int end = rawQuery.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                int separator = rawQuery.indexOf('=', start);
+                if (separator < 0 || separator > end) {
+                    separator = end;
+                }
+                if (nameMatches(start, separator, name)) {
+                    if (values == null) {
+                        values = new ArrayList<>(1);
+                    }
+                    values.add(separator < end ? decode(rawQuery, separator + 1, end) : "");
+                }
+            }
+            start = end + 1;
+        }
+        return values;
+    }
+
+    /**
+     * Values of header {@code name} (lower case), or {@code null} when it is absent.
+     */
+    List<String> headerValues(String name) {
+        return headers.apply(name);
+    }
+
+    private boolean nameMatches(int from, int to, String name) {
+        for (int i = from; i < to; i++) {
+            char current = rawQuery.charAt(i);
+            if (current == '%' || current == '+') {
+                return decode(rawQuery, from, to).equals(name);
+            }
+        }
+        return to - from == name.length() && rawQuery.startsWith(name, from);
+    }
+
+    /**
+     * Decodes {@code application/x-www-form-urlencoded} text in one pass; runs without escapes are copied as
+     * they are and consecutive {@code %XX} bytes are decoded together as UTF-8.
+     */
+    static String decode(String raw, int from, int to) {
+        int position = from;
+        while (position < to && raw.charAt(position) != '%' && raw.charAt(position) != '+') {
+            position++;
+        }
+        if (position == to) {
+            return raw.substring(from, to);
+        }
+
+        StringBuilder decoded = new StringBuilder(to - from);
+        decoded.append(raw, from, position);
+        byte[] bytes = null;
+        int byteCount = 0;
+        while (position < to) {
+            char current = raw.charAt(position);
+            if (current == '%') {
+                if (position + 2 >= to) {
+                    throw new BadRequestException("Malformed query string: incomplete escape sequence");
+                }
+                int high = Character.digit(raw.charAt(position + 1), 16);
+                int low = Character.digit(raw.charAt(position + 2), 16);
+                if (high < 0 || low < 0) {
+                    throw new BadRequestException("Malformed query string: illegal escape sequence");
+                }
+                if (bytes == null) {
+                    bytes = new byte[(to - position) / 3];
+                }
+                bytes[byteCount++] = (byte) ((high << 4) | low);
+                position += 3;
+                continue;
+            }
+            if (byteCount > 0) {
+                decoded.append(new String(bytes, 0, byteCount, StandardCharsets.UTF_8));
+                byteCount = 0;
+            }
+            decoded.append(current == '+' ? ' ' : current);
+            position++;
+        }
+        if (byteCount > 0) {
+            decoded.append(new String(bytes, 0, byteCount, StandardCharsets.UTF_8));
+        }
+        return decoded.toString();
+    }
+}
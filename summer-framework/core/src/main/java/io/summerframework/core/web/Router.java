@@ -1,6 +1,7 @@
 package io.summerframework.core.web;
 
 import io.summerframework.core.context.AnnotationApplicationContext;
+import io.summerframework.core.web.annotation.Bulkhead;
 import io.summerframework.core.web.annotation.DeleteMapping;
 import io.summerframework.core.web.annotation.GetMapping;
 import io.summerframework.core.web.annotation.PatchMapping;
@@ -10,16 +11,20 @@ import io.summerframework.core.web.annotation.RequestMapping;
 import io.summerframework.core.web.annotation.RestController;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Executor;
 
 final class Router {
 
-    private final Set<RouteDefinition> routes = new LinkedHashSet<>();
+    private final List<RouteDefinition> routes = new ArrayList<>();
+    private final Map<HttpMethod, Node> trees = new EnumMap<>(HttpMethod.class);
 
-    static Router fromContext(AnnotationApplicationContext context) {
+    static Router fromContext(AnnotationApplicationContext context, BodyBinder binder) {
         Router router = new Router();
         Collection<String> beanNames = context.getBeanDefinitionNames();
 
@@ -37,25 +42,33 @@ final class Router {
             }
 
             for (Method method : beanType.getDeclaredMethods()) {
+                Bulkhead bulkhead = method.isAnnotationPresent(Bulkhead.class)
+                        ? method.getAnnotation(Bulkhead.class)
+                        : beanType.getAnnotation(Bulkhead.class);
                 if (method.isAnnotationPresent(GetMapping.class)) {
                     String fullPath = join(basePath, method.getAnnotation(GetMapping.class).value());
-                    router.register(new RouteDefinition(HttpMethod.GET, fullPath, controller, method));
+                    router.register(new RouteDefinition(HttpMethod.GET, fullPath, controller, method, binder,
+                            bulkhead(bulkhead, context)));
                 }
                 if (method.isAnnotationPresent(PostMapping.class)) {
                     String fullPath = join(basePath, method.getAnnotation(PostMapping.class).value());
-                    router.register(new RouteDefinition(HttpMethod.POST, fullPath, controller, method));
+                    router.register(new RouteDefinition(HttpMethod.POST, fullPath, controller, method, binder,
+                            bulkhead(bulkhead, context)));
                 }
                 if (method.isAnnotationPresent(PutMapping.class)) {
                     String fullPath = join(basePath, method.getAnnotation(PutMapping.class).value());
-                    router.register(new RouteDefinition(HttpMethod.PUT, fullPath, controller, method));
+                    router.register(new RouteDefinition(HttpMethod.PUT, fullPath, controller, method, binder,
+                            bulkhead(bulkhead, context)));
                 }
                 if (method.isAnnotationPresent(DeleteMapping.class)) {
                     String fullPath = join(basePath, method.getAnnotation(DeleteMapping.class).value());
-                    router.register(new RouteDefinition(HttpMethod.DELETE, fullPath, controller, method));
+                    router.register(new RouteDefinition(HttpMethod.DELETE, fullPath, controller, method, binder,
+                            bulkhead(bulkhead, context)));
                 }
                 if (method.isAnnotationPresent(PatchMapping.class)) {
                     String fullPath = join(basePath, method.getAnnotation(PatchMapping.class).value());
-                    router.register(new RouteDefinition(HttpMethod.PATCH, fullPath, controller, method));
+                    router.register(new RouteDefinition(HttpMethod.PATCH, fullPath, controller, method, binder,
+                            bulkhead(bulkhead, context)));
                 }
             }
         }
@@ -64,35 +77,126 @@ final class Router {
     }
 
     RouteMatch resolve(String method, String path) {
+        if ("HEAD".equals(method)) {
+            // routes are never mapped to HEAD; it falls through to static resources or the 404
+            return null;
+        }
         HttpMethod httpMethod = HttpMethod.from(method);
-        String normalizedPath = normalize(path);
-
-        for (RouteDefinition route : routes) {
-            if (route.method() != httpMethod) {
-                continue;
-            }
-            Map<String, String> pathVariables = route.matchPath(normalizedPath);
-            if (pathVariables != null) {
-                return new RouteMatch(route, pathVariables);
-            }
+        Node root = trees.get(httpMethod);
+        if (root == null) {
+            return null;
         }
 
-        return null;
+        String[] segments = splitSegments(path);
+        String[] pathVariables = new String[segments.length];
+        RouteDefinition route = match(root, segments, 0, pathVariables, 0);
+        return route != null ? new RouteMatch(route, pathVariables) : null;
     }
 
     Collection<RouteDefinition> getAllRoutes() {
         return routes;
     }
 
-    private void register(RouteDefinition route) {
-        for (RouteDefinition existing : routes) {
-            if (existing.method() == route.method() && existing.path().equals(route.path())) {
+    void register(RouteDefinition route) {
+        Node node = trees.computeIfAbsent(route.method(), ignored -> new Node());
+        for (String segment : route.templateSegments()) {
+            node = RouteDefinition.isVariableSegment(segment)
+                    ? node.variableChild()
+                    : node.staticChild(segment);
+        }
+
+        if (node.route != null) {
+            if (node.route.path().equals(route.path())) {
                 throw new IllegalStateException("Duplicate route detected: " + route.method() + " " + route.path());
             }
+            throw new IllegalStateException("Ambiguous route detected: " + route.method() + " " + route.path()
+                    + " conflicts with " + node.route.path());
         }
+        node.route = route;
         routes.add(route);
     }
 
+    /**
+     * Depth-first walk over the segment trie. Static children win over the variable child; the variable
+     * branch is only tried when the static subtree has no route for the remaining segments.
+     * <p>
+     * A node sits at a fixed depth and is reachable only through its parent, so no (node, depth) pair is
+     * tried twice and a lookup enters each node of the method's trie at most once. Backtracking is bounded
+     * by the number of registered template segments, not by the request: it reaches {@code 2^depth} only
+     * for a route table that itself has a static and a variable branch at every level of that depth.
+     */
+    private static RouteDefinition match(Node node, String[] segments, int index, String[] pathVariables, int variableCount) {
+        if (index == segments.length) {
+            return node.route;
+        }
+
+        String segment = segments[index];
+        if (node.staticChildren != null) {
+            Node staticChild = node.staticChildren.get(segment);
+            if (staticChild != null) {
+                RouteDefinition route = match(staticChild, segments, index + 1, pathVariables, variableCount);
+                if (route != null) {
+                    return route;
+                }
+            }
+        }
+
+        if (node.variableChild != null) {
+            pathVariables[variableCount] = segment;
+            return match(node.variableChild, segments, index + 1, pathVariables, variableCount + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Splits a request path in a single pass, dropping empty segments so that duplicate and trailing
+     * slashes resolve the same way as the normalized route templates.
+     */
+    static String[] splitSegments(String path) {
+        if (path == null) {
+            return new String[0];
+        }
+
+        int length = path.length();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (path.charAt(i) != '/' && (i == 0 || path.charAt(i - 1) == '/')) {
+                count++;
+            }
+        }
+
+        String[] segments = new String[count];
+        int index = 0;
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean separator = i == length || path.charAt(i) == '/';
+            if (separator) {
+                if (start >= 0) {
+                    segments[index++] = path.substring(start, i);
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        return segments;
+    }
+
+    private static RouteBulkhead bulkhead(Bulkhead annotation, AnnotationApplicationContext context) {
+        if (annotation == null) {
+            return null;
+        }
+        Executor executor = null;
+        if (!annotation.executor().isBlank()) {
+            Object bean = context.getBean(annotation.executor());
+            if (!(bean instanceof Executor beanExecutor)) {
+                throw new IllegalStateException("Bulkhead executor '" + annotation.executor() + "' is not an Executor");
+            }
+            executor = beanExecutor;
+        }
+        return new RouteBulkhead(annotation.maxConcurrent(), annotation.queue(), annotation.maxWaitMillis(), executor);
+    }
+
     private static String join(String basePath, String methodPath) {
         return normalize(basePath + "/" + methodPath);
     }
@@ -110,4 +214,25 @@ final class Router {
         }
         return normalized;
     }
+
+    private static final class Node {
+
+        private Map<String, Node> staticChildren;
+        private Node variableChild;
+        private RouteDefinition route;
+
+        private Node staticChild(String segment) {
+            if (staticChildren == null) {
+                staticChildren = new HashMap<>();
+            }
+            return staticChildren.computeIfAbsent(segment, ignored -> new Node());
+        }
+
+        private Node variableChild() {
+            if (variableChild == null) {
+                variableChild = new Node();
+            }
+            return variableChild;
+        }
+    }
 }
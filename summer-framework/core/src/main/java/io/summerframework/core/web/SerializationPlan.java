@@ -0,0 +1,115 @@
+package io.summerframework.core.web;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-class description of how a record or POJO is written as a JSON object: its properties in output
+ * order, each with a getter handle and its {@code "name":} prefix already escaped and UTF-8 encoded.
+ * Plans are computed once per class through {@link #forType(Class)}.
+ */
+final class SerializationPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final ClassValue<SerializationPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected SerializationPlan computeValue(Class<?> type) {
+            return type.isRecord() ? forRecord(type) : forPojo(type);
+        }
+    };
+
+    private final Property[] properties;
+
+    private SerializationPlan(List<Property> properties) {
+        this.properties = properties.toArray(new Property[0]);
+    }
+
+    static SerializationPlan forType(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    Property[] properties() {
+        return properties;
+    }
+
+    private static SerializationPlan forRecord(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            try {
+                component.getAccessor().setAccessible(true);
+                MethodHandle getter = MethodHandles.lookup().unreflect(component.getAccessor()).asType(GETTER_TYPE);
+                properties.add(new Property(component.getName(), getter));
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalStateException("Failed to read record component: " + component.getName(), ex);
+            }
+        }
+        return new SerializationPlan(properties);
+    }
+
+    private static SerializationPlan forPojo(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+        Class<?> current = type;
+        while (current != null && current != Object.class) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    MethodHandle getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+                    properties.add(new Property(field.getName(), getter));
+                } catch (IllegalAccessException | RuntimeException ex) {
+                    throw new IllegalStateException("Failed to serialize field: " + field.getName(), ex);
+                }
+            }
+            current = current.getSuperclass();
+        }
+        return new SerializationPlan(properties);
+    }
+
+    static final class Property {
+
+        private final String name;
+        private final byte[] prefix;
+        private final MethodHandle getter;
+
+        private Property(String name, MethodHandle getter) {
+            this.name = name;
+            this.prefix = encodePrefix(name);
+            this.getter = getter;
+        }
+
+        /**
+         * The escaped, quoted property name followed by the colon, e.g. {@code "id":}.
+         */
+        byte[] prefix() {
+            return prefix;
+        }
+
+        Object read(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to read property: " + name, ex);
+            }
+        }
+
+        private static byte[] encodePrefix(String name) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(name.length() + 3);
+            JsonWriter writer = new JsonWriter(out, new byte[64]);
+            writer.writeString(name);
+            writer.writeByte(':');
+            writer.flush();
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+
+interface ServerEngine {
+
+    void start(InetSocketAddress address,
+               ServerTuningProperties tuning,
+               Executor executor,
+               ExchangeHandler handler) throws IOException;
+
+    /**
+     * Closes the listening socket so no new connections are accepted, while open connections keep being
+     * served. Engines that cannot stop listening on their own keep accepting until {@link #stop()}.
+     */
+    default void stopAccepting() {
+    }
+
+    void stop();
+
+    /**
+     * Connection counters of a running engine, or {@code null} when the engine does not track connections.
+     */
+    default ConnectionMetrics connectionMetrics() {
+        return null;
+    }
+
+    static ServerEngine create(ServerTuningProperties.Engine engine) {
+        return switch (engine) {
+            case JDK -> new JdkServerEngine();
+            case NIO -> new NioServerEngine();
+        };
+    }
+
+    @FunctionalInterface
+    interface ExchangeHandler {
+        void handle(ServerExchange exchange) throws IOException;
+    }
+}
@@ -0,0 +1,105 @@
+package io.summerframework.core.web;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+interface ServerExchange {
+
+    String requestMethod();
+
+    String requestPath();
+
+    String rawQuery();
+
+    Map<String, List<String>> requestHeaders();
+
+    /**
+     * All values of a request header, matched case-insensitively, or {@code null}.
+     */
+    default List<String> requestHeaderValues(String name) {
+        return requestHeaders().get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * First value of a request header, matched case-insensitively, or {@code null}.
+     */
+    default String requestHeader(String name) {
+        List<String> values = requestHeaderValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * {@link System#nanoTime()} at which the engine handed this request to the request executor, or {@code 0}
+     * when the engine does not record it.
+     */
+    default long dispatchedNanos() {
+        return 0L;
+    }
+
+    InputStream requestBody();
+
+    /**
+     * The complete request body. Engines that already hold the body in memory hand it out without copying;
+     * others read it as it arrives and stop once it exceeds {@code maxBytes}.
+     *
+     * @throws PayloadTooLargeException if the body is larger than {@code maxBytes}
+     */
+    default byte[] readRequestBody(int maxBytes) throws IOException {
+        String contentLength = requestHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > maxBytes) {
+                    throw new PayloadTooLargeException("Request body too large");
+                }
+            } catch (NumberFormatException ex) {
+                throw new BadRequestException("Invalid Content-Length");
+            }
+        }
+        try (InputStream inputStream = requestBody()) {
+            byte[] body = inputStream.readNBytes(maxBytes);
+            if (inputStream.read() >= 0) {
+                throw new PayloadTooLargeException("Request body too large");
+            }
+            return body;
+        }
+    }
+
+    void setResponseHeader(String name, String value);
+
+    /**
+     * Same framing contract as {@code HttpExchange#sendResponseHeaders}: a positive length is sent as
+     * {@code Content-Length}, {@code 0} selects chunked transfer encoding and {@code -1} means no body.
+     */
+    void sendResponseHeaders(int status, long contentLength) throws IOException;
+
+    OutputStream responseBody();
+
+    /**
+     * Sends {@code count} bytes of {@code file} from {@code position} as part of the body announced by
+     * {@link #sendResponseHeaders}. The exchange owns {@code file} from here on and closes it once sent.
+     * Engines that own the socket hand the file to it without copying through the heap.
+     */
+    default void sendFile(FileChannel file, long position, long count) throws IOException {
+        try (file) {
+            WritableByteChannel target = Channels.newChannel(responseBody());
+            long end = position + count;
+            while (position < end) {
+                long transferred = file.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new EOFException("File shrank while being sent");
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    void close();
+}
@@ -8,6 +8,21 @@ public final class ServerTuningProperties {
         DISCARD_OLDEST
     }
 
+    public enum Engine {
+        JDK,
+        NIO
+    }
+
+    public enum ExecutionModel {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public enum ConcurrencyLimit {
+        FIXED,
+        ADAPTIVE
+    }
+
     private final int coreThreads;
     private final int maxThreads;
     private final int queueCapacity;
@@ -16,6 +31,24 @@ public final class ServerTuningProperties {
     private final long requestTimeoutMillis;
     private final int socketBacklog;
     private final RejectionPolicy rejectionPolicy;
+    private final Engine engine;
+    private final int eventLoopThreads;
+    private final ExecutionModel executionModel;
+    private final ConcurrencyLimit concurrencyLimit;
+    private final int minConcurrentRequests;
+    private final String metricsPath;
+    private final int maxConnections;
+    private final long idleTimeoutMillis;
+    private final int maxRequestsPerConnection;
+    private final long drainTimeoutMillis;
+    private final boolean compressionEnabled;
+    private final int compressionMinResponseSize;
+    private final int compressionLevel;
+    private final String staticLocation;
+    private final String staticPath;
+    private final int sseMaxStreams;
+    private final long sseHeartbeatMillis;
+    private final int maxRequestBodyBytes;
 
     private ServerTuningProperties(Builder builder) {
         this.coreThreads = builder.coreThreads;
@@ -26,6 +59,24 @@ public final class ServerTuningProperties {
         this.requestTimeoutMillis = builder.requestTimeoutMillis;
         this.socketBacklog = builder.socketBacklog;
         this.rejectionPolicy = builder.rejectionPolicy;
+        this.engine = builder.engine;
+        this.eventLoopThreads = builder.eventLoopThreads;
+        this.executionModel = builder.executionModel;
+        this.concurrencyLimit = builder.concurrencyLimit;
+        this.minConcurrentRequests = builder.minConcurrentRequests;
+        this.metricsPath = builder.metricsPath;
+        this.maxConnections = builder.maxConnections;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.maxRequestsPerConnection = builder.maxRequestsPerConnection;
+        this.drainTimeoutMillis = builder.drainTimeoutMillis;
+        this.compressionEnabled = builder.compressionEnabled;
+        this.compressionMinResponseSize = builder.compressionMinResponseSize;
+        this.compressionLevel = builder.compressionLevel;
+        this.staticLocation = builder.staticLocation;
+        this.staticPath = builder.staticPath;
+        this.sseMaxStreams = builder.sseMaxStreams;
+        this.sseHeartbeatMillis = builder.sseHeartbeatMillis;
+        this.maxRequestBodyBytes = builder.maxRequestBodyBytes;
         validate();
     }
 
@@ -41,7 +92,23 @@ public final class ServerTuningProperties {
                 .maxConcurrentRequests(512)
                 .requestTimeoutMillis(0)
                 .socketBacklog(1024)
-                .rejectionPolicy(RejectionPolicy.CALLER_RUNS);
+                .rejectionPolicy(RejectionPolicy.CALLER_RUNS)
+                .engine(Engine.JDK)
+                .eventLoopThreads(Math.max(1, processors / 2))
+                .executionModel(ExecutionModel.PLATFORM)
+                .concurrencyLimit(ConcurrencyLimit.FIXED)
+                .minConcurrentRequests(8)
+                .maxConnections(0)
+                .idleTimeoutMillis(30_000)
+                .maxRequestsPerConnection(0)
+                .drainTimeoutMillis(10_000)
+                .compressionEnabled(false)
+                .compressionMinResponseSize(1024)
+                .compressionLevel(6)
+                .staticPath("/")
+                .sseMaxStreams(1024)
+                .sseHeartbeatMillis(15_000)
+                .maxRequestBodyBytes(10 * 1024 * 1024);
     }
 
     public int coreThreads() {
@@ -76,6 +143,115 @@ public final class ServerTuningProperties {
         return rejectionPolicy;
     }
 
+    public Engine engine() {
+        return engine;
+    }
+
+    public int eventLoopThreads() {
+        return eventLoopThreads;
+    }
+
+    public ExecutionModel executionModel() {
+        return executionModel;
+    }
+
+    public ConcurrencyLimit concurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public int minConcurrentRequests() {
+        return minConcurrentRequests;
+    }
+
+    /**
+     * Path on which per-route metrics are served as JSON, or {@code null} when metrics are disabled.
+     */
+    public String metricsPath() {
+        return metricsPath;
+    }
+
+    /**
+     * Open connections above which newly accepted sockets are shed; {@code 0} means unlimited.
+     */
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * How long a connection may sit without traffic between requests before it is closed; {@code 0} keeps
+     * idle connections open.
+     */
+    public long idleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * Requests served on one connection before it is closed with {@code Connection: close}; {@code 0} means
+     * unlimited.
+     */
+    public int maxRequestsPerConnection() {
+        return maxRequestsPerConnection;
+    }
+
+    /**
+     * How long a graceful stop waits for in-flight requests to finish before tearing the server down.
+     */
+    public long drainTimeoutMillis() {
+        return drainTimeoutMillis;
+    }
+
+    public boolean compressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * Smallest JSON body, in bytes, that is compressed; bodies that outgrow the response buffer are always
+     * compressed when the client accepts it.
+     */
+    public int compressionMinResponseSize() {
+        return compressionMinResponseSize;
+    }
+
+    public int compressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Where static resources are served from: a directory, or {@code classpath:} followed by a resource
+     * prefix; {@code null} disables static serving.
+     */
+    public String staticLocation() {
+        return staticLocation;
+    }
+
+    /**
+     * URL prefix under which static resources are looked up once no route matched.
+     */
+    public String staticPath() {
+        return staticPath;
+    }
+
+    /**
+     * Event streams that may be open at once, counted apart from {@code maxConcurrentRequests}.
+     */
+    public int sseMaxStreams() {
+        return sseMaxStreams;
+    }
+
+    /**
+     * Quiet time after which an event stream gets a comment ping; {@code 0} disables pings.
+     */
+    public long sseHeartbeatMillis() {
+        return sseHeartbeatMillis;
+    }
+
+    /**
+     * Largest request body accepted; bigger ones are answered with {@code 413}.
+     */
+    public int maxRequestBodyBytes() {
+        return maxRequestBodyBytes;
+    }
+
     private void validate() {
         if (coreThreads <= 0) {
             throw new IllegalArgumentException("coreThreads must be > 0");
@@ -98,6 +274,70 @@ public final class ServerTuningProperties {
         if (socketBacklog <= 0) {
             throw new IllegalArgumentException("socketBacklog must be > 0");
         }
+        if (engine == null) {
+            throw new IllegalArgumentException("engine must not be null");
+        }
+        if (eventLoopThreads <= 0) {
+            throw new IllegalArgumentException("eventLoopThreads must be > 0");
+        }
+        if (executionModel == null) {
+            throw new IllegalArgumentException("executionModel must not be null");
+        }
+        if (executionModel == ExecutionModel.VIRTUAL && !virtualThreadsAvailable()) {
+            throw new IllegalArgumentException("executionModel VIRTUAL requires Java 21 or newer");
+        }
+        if (concurrencyLimit == null) {
+            throw new IllegalArgumentException("concurrencyLimit must not be null");
+        }
+        if (concurrencyLimit == ConcurrencyLimit.ADAPTIVE
+                && (minConcurrentRequests <= 0 || minConcurrentRequests > maxConcurrentRequests)) {
+            throw new IllegalArgumentException("minConcurrentRequests must be > 0 and <= maxConcurrentRequests");
+        }
+        if (metricsPath != null && !metricsPath.startsWith("/")) {
+            throw new IllegalArgumentException("metricsPath must start with '/'");
+        }
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("maxConnections must be >= 0");
+        }
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("idleTimeoutMillis must be >= 0");
+        }
+        if (maxRequestsPerConnection < 0) {
+            throw new IllegalArgumentException("maxRequestsPerConnection must be >= 0");
+        }
+        if (drainTimeoutMillis < 0) {
+            throw new IllegalArgumentException("drainTimeoutMillis must be >= 0");
+        }
+        if (compressionMinResponseSize < 0) {
+            throw new IllegalArgumentException("compressionMinResponseSize must be >= 0");
+        }
+        if (compressionLevel < 1 || compressionLevel > 9) {
+            throw new IllegalArgumentException("compressionLevel must be between 1 and 9");
+        }
+        if (staticLocation != null && staticLocation.isBlank()) {
+            throw new IllegalArgumentException("staticLocation must not be blank");
+        }
+        if (staticPath == null || !staticPath.startsWith("/")) {
+            throw new IllegalArgumentException("staticPath must start with '/'");
+        }
+        if (sseMaxStreams <= 0) {
+            throw new IllegalArgumentException("sseMaxStreams must be > 0");
+        }
+        if (sseHeartbeatMillis < 0) {
+            throw new IllegalArgumentException("sseHeartbeatMillis must be >= 0");
+        }
+        if (maxRequestBodyBytes <= 0 || maxRequestBodyBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("maxRequestBodyBytes must be > 0 and <= " + (Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
     }
 
     public static final class Builder {
@@ -110,6 +350,24 @@ public final class ServerTuningProperties {
         private long requestTimeoutMillis;
         private int socketBacklog;
         private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+        private Engine engine = Engine.JDK;
+        private int eventLoopThreads = 1;
+        private ExecutionModel executionModel = ExecutionModel.PLATFORM;
+        private ConcurrencyLimit concurrencyLimit = ConcurrencyLimit.FIXED;
+        private int minConcurrentRequests = 1;
+        private String metricsPath;
+        private int maxConnections;
+        private long idleTimeoutMillis;
+        private int maxRequestsPerConnection;
+        private long drainTimeoutMillis;
+        private boolean compressionEnabled;
+        private int compressionMinResponseSize;
+        private int compressionLevel = 6;
+        private String staticLocation;
+        private String staticPath = "/";
+        private int sseMaxStreams = 1024;
+        private long sseHeartbeatMillis;
+        private int maxRequestBodyBytes = 10 * 1024 * 1024;
 
         public Builder coreThreads(int coreThreads) {
             this.coreThreads = coreThreads;
@@ -151,6 +409,96 @@ public final class ServerTuningProperties {
             return this;
         }
 
+        public Builder engine(Engine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        public Builder eventLoopThreads(int eventLoopThreads) {
+            this.eventLoopThreads = eventLoopThreads;
+            return this;
+        }
+
+        public Builder executionModel(ExecutionModel executionModel) {
+            this.executionModel = executionModel;
+            return this;
+        }
+
+        public Builder concurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        public Builder minConcurrentRequests(int minConcurrentRequests) {
+            this.minConcurrentRequests = minConcurrentRequests;
+            return this;
+        }
+
+        public Builder metricsPath(String metricsPath) {
+            this.metricsPath = metricsPath;
+            return this;
+        }
+
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        public Builder maxRequestsPerConnection(int maxRequestsPerConnection) {
+            this.maxRequestsPerConnection = maxRequestsPerConnection;
+            return this;
+        }
+
+        public Builder drainTimeoutMillis(long drainTimeoutMillis) {
+            this.drainTimeoutMillis = drainTimeoutMillis;
+            return this;
+        }
+
+        public Builder compressionEnabled(boolean compressionEnabled) {
+            this.compressionEnabled = compressionEnabled;
+            return this;
+        }
+
+        public Builder compressionMinResponseSize(int compressionMinResponseSize) {
+            this.compressionMinResponseSize = compressionMinResponseSize;
+            return this;
+        }
+
+        public Builder compressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        public Builder staticLocation(String staticLocation) {
+            this.staticLocation = staticLocation;
+            return this;
+        }
+
+        public Builder staticPath(String staticPath) {
+            this.staticPath = staticPath;
+            return this;
+        }
+
+        public Builder sseMaxStreams(int sseMaxStreams) {
+            this.sseMaxStreams = sseMaxStreams;
+            return this;
+        }
+
+        public Builder sseHeartbeatMillis(long sseHeartbeatMillis) {
+            this.sseHeartbeatMillis = sseHeartbeatMillis;
+            return this;
+        }
+
+        public Builder maxRequestBodyBytes(int maxRequestBodyBytes) {
+            this.maxRequestBodyBytes = maxRequestBodyBytes;
+            return this;
+        }
+
         public ServerTuningProperties build() {
             return new ServerTuningProperties(this);
         }
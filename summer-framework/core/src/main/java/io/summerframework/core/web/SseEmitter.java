@@ -0,0 +1,128 @@
+package io.summerframework.core.web;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Returned from a route method to keep the response open as a {@code text/event-stream}. Events can be sent
+ * from any thread before or after the handler returns; they are written in order by the server. A client
+ * that reads slower than events are produced fills the buffer, after which {@link #send} drops events and
+ * returns {@code false} instead of blocking the producer.
+ */
+public final class SseEmitter {
+
+    static final int DEFAULT_BUFFERED_EVENTS = 256;
+
+    private final int maxBufferedEvents;
+    private final Queue<SseEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final List<Runnable> closeCallbacks = new CopyOnWriteArrayList<>();
+    private volatile Runnable listener;
+    private volatile boolean completed;
+    private volatile boolean closed;
+
+    public SseEmitter() {
+        this(DEFAULT_BUFFERED_EVENTS);
+    }
+
+    public SseEmitter(int maxBufferedEvents) {
+        if (maxBufferedEvents <= 0) {
+            throw new IllegalArgumentException("maxBufferedEvents must be > 0");
+        }
+        this.maxBufferedEvents = maxBufferedEvents;
+    }
+
+    /**
+     * Queues {@code data} as an unnamed event, or as-is when it already is an {@link SseEvent}. Returns
+     * {@code false} if the stream is over or the buffer is full.
+     */
+    public boolean send(Object data) {
+        return enqueue(data instanceof SseEvent event ? event : SseEvent.of(data));
+    }
+
+    public boolean send(String name, Object data) {
+        return enqueue(SseEvent.named(name, data));
+    }
+
+    /**
+     * Ends the stream once the events queued so far are written.
+     */
+    public void complete() {
+        completed = true;
+        signal();
+    }
+
+    /**
+     * {@code false} once the stream was completed, the client went away or the server stopped.
+     */
+    public boolean isOpen() {
+        return !completed && !closed;
+    }
+
+    /**
+     * Runs {@code callback} once when the stream ends for any reason; right away if it already has.
+     */
+    public void onClose(Runnable callback) {
+        closeCallbacks.add(callback);
+        if (closed && closeCallbacks.remove(callback)) {
+            callback.run();
+        }
+    }
+
+    void attach(Runnable listener) {
+        this.listener = listener;
+        signal();
+    }
+
+    SseEvent poll() {
+        SseEvent event = events.poll();
+        if (event != null) {
+            buffered.decrementAndGet();
+        }
+        return event;
+    }
+
+    boolean completed() {
+        return completed;
+    }
+
+    boolean hasPending() {
+        return !events.isEmpty();
+    }
+
+    void markClosed() {
+        closed = true;
+        for (Runnable callback : closeCallbacks) {
+            if (closeCallbacks.remove(callback)) {
+                try {
+                    callback.run();
+                } catch (RuntimeException ex) {
+                    // a failing callback must not keep the others from running
+                }
+            }
+        }
+    }
+
+    private boolean enqueue(SseEvent event) {
+        if (!isOpen()) {
+            return false;
+        }
+        if (buffered.incrementAndGet() > maxBufferedEvents) {
+            buffered.decrementAndGet();
+            return false;
+        }
+        events.add(event);
+        signal();
+        return true;
+    }
+
+    private void signal() {
+        Runnable current = listener;
+        if (current != null) {
+            current.run();
+        }
+    }
+}
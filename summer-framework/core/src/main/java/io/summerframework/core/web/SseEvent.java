@@ -0,0 +1,27 @@
+package io.summerframework.core.web;
+
+/**
+ * One Server-Sent Events frame. {@code data} is sent as-is when it is a {@link CharSequence} and as JSON
+ * otherwise; {@code id} and {@code name} are optional and may not span lines.
+ */
+public record SseEvent(String id, String name, Object data) {
+
+    public SseEvent {
+        requireSingleLine("id", id);
+        requireSingleLine("name", name);
+    }
+
+    public static SseEvent of(Object data) {
+        return new SseEvent(null, null, data);
+    }
+
+    public static SseEvent named(String name, Object data) {
+        return new SseEvent(null, name, data);
+    }
+
+    private static void requireSingleLine(String field, String value) {
+        if (value != null && (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("SSE event " + field + " must not contain line breaks");
+        }
+    }
+}
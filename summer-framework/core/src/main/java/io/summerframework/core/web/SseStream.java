@@ -0,0 +1,239 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the events of one {@link SseEmitter} to an open exchange. Producers only enqueue and signal; a
+ * single drain task at a time runs on the stream executor and owns the exchange, so a slow client blocks that
+ * task and never the producer. A {@link Flow.Publisher} is fed through an internal emitter and gets one more
+ * item requested per event written, which keeps at most a buffer's worth in memory. When the stream is quiet
+ * for {@code heartbeatMillis}, a comment frame is sent so proxies keep the connection and a vanished client
+ * is noticed by the failing write.
+ */
+final class SseStream {
+
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final long HEARTBEAT_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ServerExchange exchange;
+    private final SseEmitter emitter;
+    private final Json json;
+    private final Executor executor;
+    private final SseStreams streams;
+    private final TimerWheel timer;
+    private final long heartbeatNanos;
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+    private volatile Flow.Subscription subscription;
+    private volatile TimerWheel.Timeout heartbeat;
+    private volatile long lastWriteNanos;
+    private volatile boolean heartbeatDue;
+    private volatile boolean closing;
+    private volatile boolean finished;
+
+    SseStream(ServerExchange exchange,
+              SseEmitter emitter,
+              Json json,
+              Executor executor,
+              SseStreams streams,
+              TimerWheel timer,
+              long heartbeatMillis) {
+        this.exchange = exchange;
+        this.emitter = emitter;
+        this.json = json;
+        this.executor = executor;
+        this.streams = streams;
+        this.timer = timer;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+    }
+
+    /**
+     * Sends the response head and starts writing; events queued before the handler returned go out first.
+     */
+    void open() throws IOException {
+        exchange.setResponseHeader("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.setResponseHeader("Cache-Control", "no-cache");
+        exchange.setResponseHeader("X-Accel-Buffering", "no");
+        exchange.sendResponseHeaders(200, 0);
+        lastWriteNanos = System.nanoTime();
+        scheduleHeartbeat(heartbeatNanos);
+        emitter.attach(this::signal);
+    }
+
+    /**
+     * Subscribes this stream's emitter to {@code publisher}; called after {@link #open()}.
+     */
+    void subscribe(Flow.Publisher<?> publisher) {
+        publisher.subscribe(new Flow.Subscriber<Object>() {
+            @Override
+            public void onSubscribe(Flow.Subscription incoming) {
+                if (subscription != null || finished) {
+                    incoming.cancel();
+                    return;
+                }
+                subscription = incoming;
+                incoming.request(SseEmitter.DEFAULT_BUFFERED_EVENTS);
+            }
+
+            @Override
+            public void onNext(Object item) {
+                if (!emitter.send(item)) {
+                    // only a publisher ignoring demand can overflow the buffer
+                    cancelSubscription();
+                    emitter.complete();
+                }
+            }
+
+            @Override
+            public void onError(Throwable failure) {
+                emitter.complete();
+            }
+
+            @Override
+            public void onComplete() {
+                emitter.complete();
+            }
+        });
+    }
+
+    /**
+     * Ends the stream from the server side, e.g. on shutdown; events still queued are dropped.
+     */
+    void close() {
+        closing = true;
+        signal();
+    }
+
+    private void signal() {
+        if (pendingSignals.getAndIncrement() != 0) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+            // no drain task can run any more; this caller owns the exchange now
+            finish();
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            if (!finished) {
+                writePending();
+            }
+            missed = pendingSignals.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void writePending() {
+        try {
+            OutputStream outputStream = exchange.responseBody();
+            boolean wrote = false;
+            SseEvent event;
+            while (!closing && (event = emitter.poll()) != null) {
+                outputStream.write(encode(event));
+                wrote = true;
+                Flow.Subscription current = subscription;
+                if (current != null) {
+                    current.request(1);
+                }
+            }
+            if (heartbeatDue && !wrote && !closing) {
+                outputStream.write(HEARTBEAT);
+                wrote = true;
+            }
+            heartbeatDue = false;
+            if (wrote) {
+                outputStream.flush();
+                lastWriteNanos = System.nanoTime();
+            }
+            if (closing || (emitter.completed() && !emitter.hasPending())) {
+                finish();
+            }
+        } catch (IOException | RuntimeException ex) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        TimerWheel.Timeout current = heartbeat;
+        if (current != null) {
+            current.cancel();
+        }
+        cancelSubscription();
+        emitter.markClosed();
+        exchange.close();
+        streams.release(this);
+    }
+
+    private void cancelSubscription() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private void scheduleHeartbeat(long delayNanos) {
+        if (timer == null || heartbeatNanos <= 0 || finished) {
+            return;
+        }
+        try {
+            heartbeat = timer.schedule(this::onHeartbeat, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (IllegalStateException ex) {
+            // timer already stopped with the server
+        }
+    }
+
+    /**
+     * Pings only after a full interval without writes, then waits for the next one measured from the last
+     * write.
+     */
+    private void onHeartbeat() {
+        if (finished) {
+            return;
+        }
+        long quiet = System.nanoTime() - lastWriteNanos;
+        if (quiet >= heartbeatNanos - HEARTBEAT_SLACK_NANOS) {
+            heartbeatDue = true;
+            signal();
+            scheduleHeartbeat(heartbeatNanos);
+        } else {
+            scheduleHeartbeat(heartbeatNanos - quiet);
+        }
+    }
+
+    private byte[] encode(SseEvent event) {
+        StringBuilder frame = new StringBuilder(64);
+        if (event.id() != null) {
+            frame.append("id: ").append(event.id()).append('\n');
+        }
+        if (event.name() != null) {
+            frame.append("event: ").append(event.name()).append('\n');
+        }
+        String data = event.data() instanceof CharSequence text ? text.toString() : json.stringify(event.data());
+        int lineStart = 0;
+        for (int i = 0; i < data.length(); i++) {
+            char current = data.charAt(i);
+            if (current == '\n' || current == '\r') {
+                frame.append("data: ").append(data, lineStart, i).append('\n');
+                if (current == '\r' && i + 1 < data.length() && data.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        frame.append("data: ").append(data, lineStart, data.length()).append("\n\n");
+        return frame.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package io.summerframework.core.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open event streams and their cap. Streams outlive the request that opened them, so they hold a slot here
+ * instead of an {@link OverloadGuard} permit, which is returned as soon as the handler has answered.
+ */
+final class SseStreams {
+
+    private final int maxStreams;
+    private final Semaphore slots;
+    private final Set<SseStream> open = ConcurrentHashMap.newKeySet();
+    private final LongAdder rejected = new LongAdder();
+
+    SseStreams(int maxStreams) {
+        this.maxStreams = maxStreams;
+        this.slots = new Semaphore(maxStreams);
+    }
+
+    boolean tryAcquire() {
+        if (slots.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Returns a slot taken with {@link #tryAcquire()} for a stream that never opened.
+     */
+    void abandon() {
+        slots.release();
+    }
+
+    void register(SseStream stream) {
+        open.add(stream);
+    }
+
+    void release(SseStream stream) {
+        if (open.remove(stream)) {
+            slots.release();
+        }
+    }
+
+    void closeAll() {
+        for (SseStream stream : open) {
+            stream.close();
+        }
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("max", maxStreams);
+        snapshot.put("open", maxStreams - slots.availablePermits());
+        snapshot.put("rejected", rejected.sum());
+        return snapshot;
+    }
+}
@@ -0,0 +1,435 @@
+package io.summerframework.core.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * Serves {@code GET}/{@code HEAD} requests that no route matched from a directory or from the classpath.
+ * Files on disk go to the socket through {@link ServerExchange#sendFile}; classpath resources up to
+ * {@link #MAX_CACHED_RESOURCE_SIZE} are read once and kept in memory. Responses carry an {@code ETag} and
+ * {@code Last-Modified} for conditional requests, single byte ranges are honoured, and a {@code .gz} sibling
+ * is sent instead of the resource when the client accepts gzip. Path segments that are empty or start with
+ * a dot are never resolved, which keeps {@code ..} and hidden files out of reach.
+ */
+final class StaticResourceHandler {
+
+    static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final int MAX_CACHED_RESOURCE_SIZE = 64 * 1024;
+    private static final int COPY_BUFFER_SIZE = 8 * 1024;
+    private static final String INDEX_FILE = "index.html";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final long[] UNSATISFIABLE = new long[0];
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=utf-8"),
+            Map.entry("htm", "text/html; charset=utf-8"),
+            Map.entry("css", "text/css; charset=utf-8"),
+            Map.entry("js", "text/javascript; charset=utf-8"),
+            Map.entry("mjs", "text/javascript; charset=utf-8"),
+            Map.entry("json", "application/json; charset=utf-8"),
+            Map.entry("map", "application/json; charset=utf-8"),
+            Map.entry("txt", "text/plain; charset=utf-8"),
+            Map.entry("csv", "text/csv; charset=utf-8"),
+            Map.entry("xml", "application/xml; charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("wasm", "application/wasm"),
+            Map.entry("pdf", "application/pdf"));
+
+    private final String urlPrefix;
+    private final Path directory;
+    private final String resourcePrefix;
+    private final ClassLoader classLoader;
+    private final ConcurrentMap<String, ClasspathEntry> classpathEntries = new ConcurrentHashMap<>();
+
+    private StaticResourceHandler(String urlPrefix, Path directory, String resourcePrefix, ClassLoader classLoader) {
+        this.urlPrefix = urlPrefix;
+        this.directory = directory;
+        this.resourcePrefix = resourcePrefix;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Handler for the configured {@code staticLocation}, or {@code null} when static serving is disabled.
+     */
+    static StaticResourceHandler create(ServerTuningProperties tuning) {
+        String location = tuning.staticLocation();
+        if (location == null) {
+            return null;
+        }
+        String urlPrefix = tuning.staticPath().endsWith("/") ? tuning.staticPath() : tuning.staticPath() + "/";
+        if (location.startsWith(CLASSPATH_PREFIX)) {
+            String resourcePrefix = trimSlashes(location.substring(CLASSPATH_PREFIX.length()));
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            return new StaticResourceHandler(urlPrefix, null,
+                    resourcePrefix.isEmpty() ? "" : resourcePrefix + "/",
+                    classLoader != null ? classLoader : StaticResourceHandler.class.getClassLoader());
+        }
+        Path directory = Path.of(location.startsWith("file:") ? location.substring("file:".length()) : location)
+                .toAbsolutePath()
+                .normalize();
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException("Static location is not a directory: " + directory);
+        }
+        return new StaticResourceHandler(urlPrefix, directory, null, null);
+    }
+
+    String describe() {
+        return (directory != null ? directory.toString() : CLASSPATH_PREFIX + resourcePrefix) + " at " + urlPrefix;
+    }
+
+    /**
+     * Answers the request if {@code path} names a static resource; {@code false} leaves the response to the
+     * caller.
+     */
+    boolean handle(ServerExchange exchange, String path) throws IOException {
+        String method = exchange.requestMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            return false;
+        }
+        String relative = relativePath(path);
+        if (relative == null) {
+            return false;
+        }
+
+        String range = exchange.requestHeader("Range");
+        boolean gzipAllowed = range == null && acceptsGzip(exchange.requestHeader("Accept-Encoding"));
+        Resource resource;
+        Resource gzipped;
+        if (directory != null) {
+            resource = file(relative);
+            gzipped = resource != null && gzipAllowed ? file(relative + GZIP_SUFFIX) : null;
+        } else {
+            ClasspathEntry entry = classpathEntry(relative);
+            resource = entry != null ? entry.resource() : null;
+            gzipped = entry != null && gzipAllowed ? entry.gzipped() : null;
+        }
+        if (resource == null) {
+            return false;
+        }
+
+        if (gzipped != null) {
+            exchange.setResponseHeader("Content-Encoding", "gzip");
+            exchange.setResponseHeader("Vary", "Accept-Encoding");
+            serve(exchange, gzipped, resource.contentType(), null, head);
+        } else {
+            serve(exchange, resource, resource.contentType(), range, head);
+        }
+        return true;
+    }
+
+    private static void serve(ServerExchange exchange, Resource resource, String contentType, String range, boolean head)
+            throws IOException {
+        String lastModified = resource.lastModifiedMillis() > 0 ? httpDate(resource.lastModifiedMillis()) : null;
+        exchange.setResponseHeader("Content-Type", contentType);
+        exchange.setResponseHeader("ETag", resource.etag());
+        if (lastModified != null) {
+            exchange.setResponseHeader("Last-Modified", lastModified);
+        }
+        exchange.setResponseHeader("Accept-Ranges", "bytes");
+
+        if (notModified(exchange, resource)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        long start = 0;
+        long count = resource.length();
+        int status = 200;
+        String ifRange = exchange.requestHeader("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(resource.etag()) || ifRange.equals(lastModified))) {
+            long[] bounds = parseRange(range, resource.length());
+            if (bounds == UNSATISFIABLE) {
+                exchange.setResponseHeader("Content-Range", "bytes */" + resource.length());
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                count = bounds[1] - bounds[0] + 1;
+                status = 206;
+                exchange.setResponseHeader("Content-Range",
+                        "bytes " + bounds[0] + "-" + bounds[1] + "/" + resource.length());
+            }
+        }
+
+        exchange.sendResponseHeaders(status, count > 0 ? count : -1);
+        if (!head && count > 0) {
+            writeBody(exchange, resource, start, count);
+        }
+        exchange.close();
+    }
+
+    private static void writeBody(ServerExchange exchange, Resource resource, long start, long count)
+            throws IOException {
+        if (resource.bytes() != null) {
+            exchange.responseBody().write(resource.bytes(), (int) start, (int) count);
+        } else if (resource.file() != null) {
+            exchange.sendFile(FileChannel.open(resource.file(), StandardOpenOption.READ), start, count);
+        } else {
+            try (InputStream inputStream = resource.url().openStream()) {
+                inputStream.skipNBytes(start);
+                OutputStream outputStream = exchange.responseBody();
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                long remaining = count;
+                while (remaining > 0) {
+                    int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("Resource shrank while being sent: " + resource.url());
+                    }
+                    outputStream.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code If-None-Match} takes precedence; {@code If-Modified-Since} is only consulted without it.
+     */
+    private static boolean notModified(ServerExchange exchange, Resource resource) {
+        String ifNoneMatch = exchange.requestHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.startsWith("W/")) {
+                    trimmed = trimmed.substring(2);
+                }
+                if (trimmed.equals("*") || trimmed.equals(resource.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = exchange.requestHeader("If-Modified-Since");
+        if (ifModifiedSince == null || resource.lastModifiedMillis() <= 0) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return resource.lastModifiedMillis() / 1000 <= since;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses a single {@code bytes=} range into inclusive bounds. Returns {@code null} when the header should
+     * be ignored (other units, several ranges, bad syntax) and {@link #UNSATISFIABLE} when no byte of the
+     * resource is selected.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.regionMatches(true, 0, "bytes=", 0, 6) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long first = Long.parseLong(spec.substring(0, dash));
+            long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (first >= length) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{first, Math.min(last, length - 1)};
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private String relativePath(String path) {
+        String relative;
+        if (path.startsWith(urlPrefix)) {
+            relative = path.substring(urlPrefix.length());
+        } else if (path.length() == urlPrefix.length() - 1 && urlPrefix.startsWith(path)) {
+            relative = "";
+        } else {
+            return null;
+        }
+        if (relative.isEmpty() || relative.endsWith("/")) {
+            relative += INDEX_FILE;
+        }
+        if (relative.indexOf('\\') >= 0 || relative.indexOf('\0') >= 0) {
+            return null;
+        }
+        for (String segment : relative.split("/", -1)) {
+            if (segment.isEmpty() || segment.charAt(0) == '.') {
+                return null;
+            }
+        }
+        return relative;
+    }
+
+    private Resource file(String relative) {
+        Path file = directory.resolve(relative);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            return null;
+        }
+        if (attributes.isDirectory()) {
+            return file(relative + "/" + INDEX_FILE);
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        return new Resource(contentType(relative), attributes.size(), lastModified,
+                '"' + Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()) + '"',
+                null, file, null);
+    }
+
+    /**
+     * Classpath resources do not change while the application runs, so each one is resolved once together
+     * with its {@code .gz} sibling; misses are not remembered to keep arbitrary request paths from growing the
+     * map.
+     */
+    private ClasspathEntry classpathEntry(String relative) throws IOException {
+        ClasspathEntry cached = classpathEntries.get(relative);
+        if (cached != null) {
+            return cached;
+        }
+        Resource resource = classpathResource(relative);
+        if (resource == null) {
+            return null;
+        }
+        ClasspathEntry entry = new ClasspathEntry(resource, classpathResource(relative + GZIP_SUFFIX));
+        ClasspathEntry existing = classpathEntries.putIfAbsent(relative, entry);
+        return existing != null ? existing : entry;
+    }
+
+    private Resource classpathResource(String relative) throws IOException {
+        URL url = classLoader.getResource(resourcePrefix + relative);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            Path file;
+            try {
+                file = Path.of(url.toURI());
+            } catch (URISyntaxException ex) {
+                return null;
+            }
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.size() > MAX_CACHED_RESOURCE_SIZE) {
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                return new Resource(contentType(relative), attributes.size(), lastModified,
+                        '"' + Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()) + '"',
+                        null, file, null);
+            }
+        }
+
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        long length = connection.getContentLengthLong();
+        long lastModified = connection.getLastModified();
+        if (length > MAX_CACHED_RESOURCE_SIZE) {
+            connection.getInputStream().close();
+            return new Resource(contentType(relative), length, lastModified,
+                    '"' + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + '"', null, null, url);
+        }
+        byte[] bytes;
+        try (InputStream inputStream = connection.getInputStream()) {
+            bytes = inputStream.readAllBytes();
+        } catch (IOException ex) {
+            // directories inside jars resolve to an entry that cannot be read
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return new Resource(contentType(relative), bytes.length, lastModified,
+                '"' + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(bytes.length) + '"',
+                bytes, null, null);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return ResponseCompressor.negotiate(acceptEncoding) == ResponseCompressor.Encoding.GZIP;
+    }
+
+    private static String contentType(String relative) {
+        int dot = relative.lastIndexOf('.');
+        if (dot < 0 || dot < relative.lastIndexOf('/')) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        return CONTENT_TYPES.getOrDefault(relative.substring(dot + 1).toLowerCase(Locale.ROOT), DEFAULT_CONTENT_TYPE);
+    }
+
+    private static String httpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC));
+    }
+
+    private static String trimSlashes(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) == '/') {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+
+    private record ClasspathEntry(Resource resource, Resource gzipped) {
+    }
+
+    /**
+     * One servable representation; exactly one of {@code bytes}, {@code file} and {@code url} holds the
+     * content.
+     */
+    private record Resource(String contentType,
+                            long length,
+                            long lastModifiedMillis,
+                            String etag,
+                            byte[] bytes,
+                            Path file,
+                            URL url) {
+    }
+}
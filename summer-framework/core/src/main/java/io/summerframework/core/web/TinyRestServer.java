@@ -1,37 +1,45 @@
 package io.summerframework.core.web;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpServer;
 import io.summerframework.core.context.AnnotationApplicationContext;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 public class TinyRestServer {
 
+    private static final long DRAIN_POLL_MILLIS = 10;
+    private static final long TIMER_TICK_MILLIS = 10;
+    private static final int TIMER_WHEEL_SIZE = 512;
+
     private final int port;
     private final Router router;
     private final Json json;
+    private final ResponseWriter responseWriter;
     private final ServerTuningProperties tuning;
     private final OverloadGuard overloadGuard;
     private final TunedExecutorFactory executorFactory;
-    private ThreadPoolExecutor ioExecutor;
-    private ThreadPoolExecutor invocationExecutor;
-    private HttpServer httpServer;
+    private final LatencyHistogram queueWait;
+    private final StaticResourceHandler staticResources;
+    private final SseStreams sseStreams;
+    private ExecutorService ioExecutor;
+    private ExecutorService streamExecutor;
+    private TimerWheel timerWheel;
+    private ServerEngine engine;
+    private volatile boolean draining;
 
     public TinyRestServer(int port, AnnotationApplicationContext context) {
         this(port, context, ServerTuningProperties.builder().build());
@@ -39,179 +47,507 @@ public class TinyRestServer {
 
     public TinyRestServer(int port, AnnotationApplicationContext context, ServerTuningProperties tuning) {
         this.port = port;
-        this.router = Router.fromContext(context);
+        this.router = Router.fromContext(context, new BodyBinder());
         this.json = new Json();
+        this.responseWriter = new ResponseWriter(json, tuning.compressionEnabled()
+                ? new ResponseCompressor(tuning.compressionLevel(), tuning.compressionMinResponseSize())
+                : null);
         this.tuning = tuning;
-        this.overloadGuard = new OverloadGuard(tuning.maxConcurrentRequests());
+        this.overloadGuard = OverloadGuard.create(tuning);
         this.executorFactory = new TunedExecutorFactory();
+        this.queueWait = tuning.metricsPath() != null ? new LatencyHistogram() : null;
+        this.staticResources = StaticResourceHandler.create(tuning);
+        this.sseStreams = new SseStreams(tuning.sseMaxStreams());
+        if (queueWait != null) {
+            for (RouteDefinition route : router.getAllRoutes()) {
+                route.enableMetrics();
+            }
+        }
     }
 
     public void start() {
-        if (httpServer != null) {
+        if (engine != null) {
             throw new IllegalStateException("Server already started");
         }
 
+        draining = false;
         try {
-            httpServer = HttpServer.create(new InetSocketAddress(port), tuning.socketBacklog());
             ioExecutor = executorFactory.create(tuning, "summer-http");
-            httpServer.setExecutor(ioExecutor);
-            if (tuning.requestTimeoutMillis() > 0) {
-                invocationExecutor = executorFactory.create(tuning, "summer-route");
+            streamExecutor = executorFactory.createStreaming(tuning, "summer-sse");
+            if (tuning.requestTimeoutMillis() > 0 || (tuning.sseHeartbeatMillis() > 0 && hasStreamingRoutes())) {
+                timerWheel = new TimerWheel("summer-timer", TIMER_TICK_MILLIS, TIMER_WHEEL_SIZE);
+            }
+            engine = ServerEngine.create(tuning.engine());
+            // the NIO engine stamps its exchanges at dispatch; the JDK engine's tasks are opaque and need a wrapper
+            Executor requestExecutor = queueWait != null && tuning.engine() == ServerTuningProperties.Engine.JDK
+                    ? new QueueWaitExecutor(ioExecutor)
+                    : ioExecutor;
+            engine.start(new InetSocketAddress(port), tuning, requestExecutor, this::handle);
+        } catch (IOException | RuntimeException ex) {
+            engine = null;
+            stopTimerWheel();
+            shutdownExecutor(ioExecutor);
+            ioExecutor = null;
+            shutdownExecutor(streamExecutor);
+            streamExecutor = null;
+            if (ex instanceof RuntimeException runtime) {
+                throw runtime;
             }
-            httpServer.createContext("/", this::handle);
-            httpServer.start();
-        } catch (IOException ex) {
             throw new IllegalStateException("Failed to start server on port " + port, ex);
         }
 
         System.out.println("TinyRestServer started at http://localhost:" + port);
-        System.out.println("  tuning: coreThreads=" + tuning.coreThreads()
+        boolean virtual = tuning.executionModel() == ServerTuningProperties.ExecutionModel.VIRTUAL;
+        System.out.println("  tuning: executionModel=" + tuning.executionModel()
+                + (virtual ? "" : ", coreThreads=" + tuning.coreThreads()
                 + ", maxThreads=" + tuning.maxThreads()
-                + ", queueCapacity=" + tuning.queueCapacity()
+                + ", queueCapacity=" + tuning.queueCapacity())
                 + ", socketBacklog=" + tuning.socketBacklog()
+                + ", concurrencyLimit=" + tuning.concurrencyLimit()
+                + (tuning.concurrencyLimit() == ServerTuningProperties.ConcurrencyLimit.ADAPTIVE
+                ? ", minConcurrentRequests=" + tuning.minConcurrentRequests() : "")
                 + ", maxConcurrentRequests=" + tuning.maxConcurrentRequests()
                 + ", requestTimeoutMillis=" + tuning.requestTimeoutMillis()
-                + ", rejectionPolicy=" + tuning.rejectionPolicy());
+                + (virtual ? "" : ", rejectionPolicy=" + tuning.rejectionPolicy())
+                + ", engine=" + tuning.engine()
+                + (tuning.engine() == ServerTuningProperties.Engine.NIO
+                ? ", eventLoopThreads=" + tuning.eventLoopThreads()
+                + ", maxRequestsPerConnection=" + tuning.maxRequestsPerConnection() : "")
+                + ", maxConnections=" + tuning.maxConnections()
+                + ", idleTimeoutMillis=" + tuning.idleTimeoutMillis()
+                + ", drainTimeoutMillis=" + tuning.drainTimeoutMillis()
+                + (hasStreamingRoutes() ? ", sseMaxStreams=" + tuning.sseMaxStreams()
+                + ", sseHeartbeatMillis=" + tuning.sseHeartbeatMillis() : "")
+                + (tuning.compressionEnabled() ? ", compression=level " + tuning.compressionLevel()
+                + " from " + tuning.compressionMinResponseSize() + " bytes" : "")
+                + (queueWait != null ? ", metricsPath=" + tuning.metricsPath() : "")
+                + (staticResources != null ? ", static=" + staticResources.describe() : ""));
         for (RouteDefinition route : router.getAllRoutes()) {
             System.out.println("  -> " + route.method() + " " + route.path());
         }
     }
 
+    /**
+     * Stops the server without dropping admitted requests: the listener is closed, requests still arriving
+     * on open connections are answered with {@code 503} and {@code Connection: close}, and teardown waits up
+     * to {@code drainTimeoutMillis} for the in-flight count to reach zero.
+     */
+    public void stopGracefully() {
+        if (engine == null) {
+            return;
+        }
+        draining = true;
+        engine.stopAccepting();
+        // event streams never finish on their own; ending them lets clients reconnect to another instance
+        sseStreams.closeAll();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tuning.drainTimeoutMillis());
+        while (overloadGuard.inFlight() > 0 && System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(DRAIN_POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int remaining = overloadGuard.inFlight();
+        if (remaining > 0) {
+            System.out.println("TinyRestServer drain timed out with " + remaining + " requests in flight");
+        }
+        stop();
+    }
+
     public void stop() {
-        if (httpServer != null) {
-            httpServer.stop(0);
-            httpServer = null;
+        sseStreams.closeAll();
+        if (engine != null) {
+            engine.stop();
+            engine = null;
         }
-        shutdownExecutor(invocationExecutor);
-        invocationExecutor = null;
+        stopTimerWheel();
         shutdownExecutor(ioExecutor);
         ioExecutor = null;
+        shutdownExecutor(streamExecutor);
+        streamExecutor = null;
     }
 
-    private void handle(HttpExchange exchange) throws IOException {
-        String path = exchange.getRequestURI().getPath();
-        boolean entered = overloadGuard.tryEnter();
-        if (!entered) {
-            writeJson(exchange, 503, ApiEnvelope.error("Server is overloaded", 503, path));
+    public OverloadMetrics overloadMetrics() {
+        return new OverloadMetrics(tuning.concurrencyLimit(),
+                overloadGuard.limit(),
+                overloadGuard.inFlight(),
+                overloadGuard.rejected());
+    }
+
+    /**
+     * Connection counters of the running engine, or {@code null} when the server is stopped or its engine
+     * does not track connections.
+     */
+    public ConnectionMetrics connectionMetrics() {
+        ServerEngine current = engine;
+        return current != null ? current.connectionMetrics() : null;
+    }
+
+    private void handle(ServerExchange exchange) throws IOException {
+        long dispatched = exchange.dispatchedNanos();
+        long queueWaitNanos = dispatched != 0L ? System.nanoTime() - dispatched : -1;
+        if (queueWait != null && queueWaitNanos >= 0) {
+            queueWait.recordNanos(queueWaitNanos);
+        }
+        String path = exchange.requestPath();
+        if (draining) {
+            rejectDraining(exchange, path);
+            return;
+        }
+        if (queueWait != null && path.equals(tuning.metricsPath())) {
+            responseWriter.writeJson(exchange, 200, ApiEnvelope.success(metricsSnapshot(), path));
             return;
         }
 
+        RouteMatch routeMatch;
         try {
-            RouteMatch routeMatch = router.resolve(exchange.getRequestMethod(), path);
-            if (routeMatch == null) {
-                writeJson(exchange, 404, ApiEnvelope.error("Route not found", 404, path));
-                return;
+            routeMatch = router.resolve(exchange.requestMethod(), path);
+        } catch (BadRequestException ex) {
+            writeFailure(exchange, path, ex);
+            return;
+        }
+        if (routeMatch == null) {
+            if (staticResources == null || !staticResources.handle(exchange, path)) {
+                responseWriter.writeJson(exchange, 404, ApiEnvelope.error("Route not found", 404, path));
             }
+            return;
+        }
 
-            String body = readBody(exchange);
-            Map<String, List<String>> queryParams = parseQueryParams(exchange.getRequestURI().getRawQuery());
-            Map<String, List<String>> headers = parseHeaders(exchange);
-            Object result = invokeRoute(routeMatch.route(), body, routeMatch.pathVariables(), queryParams, headers);
-            if (result instanceof RestResponse restResponse) {
-                int status = restResponse.status();
-                if (status == 204) {
-                    writeNoContent(exchange);
-                    return;
-                }
-                writeJson(exchange, status, ApiEnvelope.success(restResponse.body(), path));
-                return;
+        RouteDefinition route = routeMatch.route();
+        if (route.metrics() != null && queueWaitNanos >= 0) {
+            route.metrics().recordQueueWait(queueWaitNanos);
+        }
+        RouteBulkhead bulkhead = route.bulkhead();
+        long started = System.nanoTime();
+        // the route's own permits come first so a saturated route never holds server-wide permits while waiting
+        if (bulkhead != null && !bulkhead.tryEnter(tuning.requestTimeoutMillis())) {
+            rejectOverloaded(exchange, path, route.metrics(), started);
+            return;
+        }
+        if (!overloadGuard.tryEnter()) {
+            if (bulkhead != null) {
+                bulkhead.exit();
             }
+            rejectOverloaded(exchange, path, route.metrics(), started);
+            return;
+        }
+        if (draining) {
+            // re-checked after entering so a drain that already saw zero in flight cannot miss this request
+            overloadGuard.exit(System.nanoTime() - started);
+            if (bulkhead != null) {
+                bulkhead.exit();
+            }
+            rejectDraining(exchange, path);
+            return;
+        }
 
-            writeJson(exchange, 200, ApiEnvelope.success(result, path));
-        } catch (BadRequestException ex) {
-            writeJson(exchange, 400, ApiEnvelope.error(ex.getMessage(), 400, path));
-        } catch (RequestTimeoutException ex) {
-            writeJson(exchange, 504, ApiEnvelope.error(ex.getMessage(), 504, path));
-        } catch (RejectedExecutionException ex) {
-            writeJson(exchange, 503, ApiEnvelope.error("Server queue is full", 503, path));
+        int status = 500;
+        long invokeStarted = 0;
+        long invokeEnded = 0;
+        boolean completesLater = false;
+        try {
+            byte[] body = exchange.readRequestBody(tuning.maxRequestBodyBytes());
+            RouteRequest request = new RouteRequest(body, routeMatch.pathVariables(), exchange.rawQuery(),
+                    exchange::requestHeaderValues);
+            invokeStarted = System.nanoTime();
+            Object result = bulkhead != null && bulkhead.executor() != null
+                    ? invokeOn(bulkhead.executor(), route, request)
+                    : invokeRoute(route, request);
+            if (result instanceof CompletionStage<?> stage) {
+                completesLater = true;
+                completeLater(exchange, path, route, stage, started, invokeStarted);
+                return;
+            }
+            invokeEnded = System.nanoTime();
+            status = writeResult(exchange, path, result);
         } catch (Exception ex) {
-            String message = ex.getMessage() != null ? ex.getMessage() : "Internal server error";
-            writeJson(exchange, 500, ApiEnvelope.error(message, 500, path));
+            status = writeFailure(exchange, path, ex);
         } finally {
-            overloadGuard.exit();
+            if (!completesLater) {
+                finish(route, status, started, invokeStarted, invokeEnded);
+            }
         }
     }
 
-    private Object invokeRoute(RouteDefinition route,
-                               String body,
-                               Map<String, String> pathVariables,
-                               Map<String, List<String>> queryParams,
-                               Map<String, List<String>> headers) {
-        if (tuning.requestTimeoutMillis() <= 0) {
-            return route.invoke(body, pathVariables, queryParams, headers);
+    /**
+     * Writes the response of an asynchronous handler once its stage completes, on a streaming worker and never
+     * on the completing thread, which may be the timer. The request keeps its overload permit until then, and
+     * whatever is left of its deadline is enforced by the timer wheel instead of a thread blocked on the result.
+     * If the server is already stopping, the exchange is closed without a response.
+     */
+    private void completeLater(ServerExchange exchange,
+                               String path,
+                               RouteDefinition route,
+                               CompletionStage<?> stage,
+                               long started,
+                               long invokeStarted) {
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        stage.whenComplete((value, failure) -> {
+            if (failure != null) {
+                outcome.completeExceptionally(failure);
+            } else {
+                outcome.complete(value);
+            }
+        });
+
+        long timeoutMillis = tuning.requestTimeoutMillis();
+        if (timeoutMillis > 0) {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - (System.nanoTime() - invokeStarted);
+            TimerWheel.Timeout timeout = timerWheel.schedule(() -> {
+                boolean timedOut = outcome.completeExceptionally(
+                        new RequestTimeoutException("Request timed out after " + timeoutMillis + " ms"));
+                if (timedOut && stage instanceof Future<?> future) {
+                    future.cancel(true);
+                }
+            }, remainingNanos, TimeUnit.NANOSECONDS);
+            outcome.whenComplete((value, failure) -> timeout.cancel());
         }
 
-        Future<Object> future = invocationExecutor.submit(() -> route.invoke(body, pathVariables, queryParams, headers));
-        try {
-            return future.get(tuning.requestTimeoutMillis(), TimeUnit.MILLISECONDS);
-        } catch (TimeoutException ex) {
-            future.cancel(true);
-            throw new RequestTimeoutException("Request timed out after " + tuning.requestTimeoutMillis() + " ms");
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Request processing interrupted", ex);
-        } catch (ExecutionException ex) {
-            Throwable cause = ex.getCause();
-            if (cause instanceof RuntimeException runtimeException) {
-                throw runtimeException;
+        // unlike the request pool under CALLER_RUNS, the streaming pool never runs a task on the submitting thread
+        ExecutorService responseExecutor = streamExecutor;
+        Executor respondAsync = task -> {
+            try {
+                responseExecutor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                exchange.close();
+                finish(route, 503, started, invokeStarted, 0);
+            }
+        };
+        outcome.whenCompleteAsync((value, failure) -> {
+            long invokeEnded = System.nanoTime();
+            int status = 500;
+            try {
+                status = failure == null
+                        ? writeResult(exchange, path, value)
+                        : writeFailure(exchange, path, unwrap(failure));
+            } catch (Exception ex) {
+                try {
+                    status = writeFailure(exchange, path, ex);
+                } catch (IOException | RuntimeException writeFailure) {
+                    exchange.close();
+                }
+            } finally {
+                finish(route, status, started, invokeStarted, invokeEnded);
             }
-            throw new IllegalStateException(cause != null ? cause.getMessage() : "Request processing failed", ex);
+        }, respondAsync);
+    }
+
+    private int writeResult(ServerExchange exchange, String path, Object result) throws IOException {
+        if (result instanceof SseEmitter emitter) {
+            return openStream(exchange, path, emitter, null);
+        }
+        if (result instanceof Flow.Publisher<?> publisher) {
+            return openStream(exchange, path, new SseEmitter(), publisher);
+        }
+        if (result instanceof RestResponse restResponse) {
+            int status = restResponse.status();
+            if (status == 204) {
+                responseWriter.writeNoContent(exchange);
+                return status;
+            }
+            responseWriter.writeJson(exchange, status, ApiEnvelope.success(restResponse.body(), path));
+            return status;
+        }
+
+        responseWriter.writeJson(exchange, 200, ApiEnvelope.success(result, path));
+        return 200;
+    }
+
+    /**
+     * Hands the exchange over to an event stream. The request counts as answered once the head is sent, so
+     * its overload permit is returned while the stream keeps only its slot in {@link SseStreams}.
+     */
+    private int openStream(ServerExchange exchange, String path, SseEmitter emitter, Flow.Publisher<?> publisher)
+            throws IOException {
+        if (!sseStreams.tryAcquire()) {
+            emitter.markClosed();
+            responseWriter.writeJson(exchange, 503, ApiEnvelope.error("Too many open event streams", 503, path));
+            return 503;
+        }
+        SseStream stream;
+        try {
+            stream = new SseStream(exchange, emitter, json, streamExecutor, sseStreams, timerWheel,
+                    tuning.sseHeartbeatMillis());
+            sseStreams.register(stream);
+        } catch (RuntimeException ex) {
+            sseStreams.abandon();
+            emitter.markClosed();
+            throw ex;
+        }
+        try {
+            stream.open();
+        } catch (IOException | RuntimeException ex) {
+            sseStreams.release(stream);
+            emitter.markClosed();
+            throw ex;
+        }
+        if (publisher != null) {
+            stream.subscribe(publisher);
         }
+        return 200;
     }
 
-    private Map<String, List<String>> parseQueryParams(String rawQuery) {
-        Map<String, List<String>> params = new LinkedHashMap<>();
-        if (rawQuery == null || rawQuery.isBlank()) {
-            return params;
+    private int writeFailure(ServerExchange exchange, String path, Throwable failure) throws IOException {
+        int status;
+        String message;
+        if (failure instanceof BadRequestException) {
+            status = 400;
+            message = failure.getMessage();
+        } else if (failure instanceof PayloadTooLargeException) {
+            status = 413;
+            message = failure.getMessage();
+        } else if (failure instanceof RequestTimeoutException) {
+            status = 504;
+            message = failure.getMessage();
+        } else if (failure instanceof RejectedExecutionException) {
+            status = 503;
+            message = "Server queue is full";
+        } else {
+            status = 500;
+            message = failure.getMessage() != null ? failure.getMessage() : "Internal server error";
         }
+        responseWriter.writeJson(exchange, status, ApiEnvelope.error(message, status, path));
+        return status;
+    }
 
-        String[] pairs = rawQuery.split("&");
-        for (String pair : pairs) {
-            if (pair.isBlank()) {
-                continue;
-            }
-            int separator = pair.indexOf('=');
-            String rawName = separator >= 0 ? pair.substring(0, separator) : pair;
-            String rawValue = separator >= 0 ? pair.substring(separator + 1) : "";
-            String name = URLDecoder.decode(rawName, StandardCharsets.UTF_8);
-            String value = URLDecoder.decode(rawValue, StandardCharsets.UTF_8);
-            params.computeIfAbsent(name, ignored -> new ArrayList<>()).add(value);
+    private void finish(RouteDefinition route, int status, long started, long invokeStarted, long invokeEnded) {
+        long finished = System.nanoTime();
+        overloadGuard.exit(finished - started);
+        if (route.bulkhead() != null) {
+            route.bulkhead().exit();
+        }
+        RouteMetrics metrics = route.metrics();
+        if (metrics != null) {
+            long handlerNanos = invokeStarted == 0 ? -1 : (invokeEnded != 0 ? invokeEnded : finished) - invokeStarted;
+            metrics.record(status, finished - started, handlerNanos);
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        Throwable current = failure;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
         }
-        return params;
+        return current;
     }
 
-    private Map<String, List<String>> parseHeaders(HttpExchange exchange) {
-        Map<String, List<String>> headers = new LinkedHashMap<>();
-        for (Map.Entry<String, List<String>> entry : exchange.getRequestHeaders().entrySet()) {
-            headers.put(entry.getKey().toLowerCase(), entry.getValue());
+    private void rejectOverloaded(ServerExchange exchange, String path, RouteMetrics metrics, long started)
+            throws IOException {
+        if (metrics != null) {
+            metrics.recordOverloadRejection();
+        }
+        responseWriter.writeJson(exchange, 503, ApiEnvelope.error("Server is overloaded", 503, path));
+        if (metrics != null) {
+            metrics.record(503, System.nanoTime() - started, -1);
         }
-        return headers;
     }
 
-    private String readBody(HttpExchange exchange) throws IOException {
-        try (InputStream inputStream = exchange.getRequestBody()) {
-            byte[] bytes = inputStream.readAllBytes();
-            return new String(bytes, StandardCharsets.UTF_8);
+    private void rejectDraining(ServerExchange exchange, String path) throws IOException {
+        exchange.setResponseHeader("Connection", "close");
+        responseWriter.writeJson(exchange, 503, ApiEnvelope.error("Server is shutting down", 503, path));
+    }
+
+    private Map<String, Object> metricsSnapshot() {
+        OverloadMetrics overload = overloadMetrics();
+        Map<String, Object> overloadSnapshot = new LinkedHashMap<>();
+        overloadSnapshot.put("mode", overload.mode().name());
+        overloadSnapshot.put("limit", overload.limit());
+        overloadSnapshot.put("inFlight", overload.inFlight());
+        overloadSnapshot.put("rejected", overload.rejected());
+
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (RouteDefinition route : router.getAllRoutes()) {
+            Map<String, Object> routeSnapshot = new LinkedHashMap<>();
+            routeSnapshot.put("method", route.method().name());
+            routeSnapshot.put("path", route.path());
+            routeSnapshot.putAll(route.metrics().snapshot());
+            if (route.bulkhead() != null) {
+                routeSnapshot.put("bulkhead", route.bulkhead().snapshot());
+            }
+            routes.add(routeSnapshot);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("overload", overloadSnapshot);
+        ConnectionMetrics connections = connectionMetrics();
+        if (connections != null) {
+            Map<String, Object> connectionSnapshot = new LinkedHashMap<>();
+            connectionSnapshot.put("open", connections.open());
+            connectionSnapshot.put("shed", connections.shed());
+            connectionSnapshot.put("idleClosed", connections.idleClosed());
+            snapshot.put("connections", connectionSnapshot);
         }
+        snapshot.put("streams", sseStreams.snapshot());
+        snapshot.put("queueWaitMicros", queueWait.snapshot());
+        snapshot.put("routes", routes);
+        return snapshot;
+    }
+
+    /**
+     * Runs the handler on a bulkhead's own executor; the HTTP thread returns right away and the response is
+     * written like that of an asynchronous handler.
+     */
+    private CompletionStage<Object> invokeOn(Executor executor, RouteDefinition route, RouteRequest request) {
+        return CompletableFuture.supplyAsync(() -> invokeRoute(route, request), executor)
+                .thenCompose(result -> result instanceof CompletionStage<?> stage
+                        ? stage.thenApply(Object.class::cast)
+                        : CompletableFuture.completedFuture(result));
     }
 
-    private void writeNoContent(HttpExchange exchange) throws IOException {
-        exchange.getResponseHeaders().set("Content-Length", "0");
-        exchange.sendResponseHeaders(204, -1);
-        exchange.close();
+    /**
+     * Runs the handler in place on the HTTP thread. With a request timeout its {@link Deadline} is armed on
+     * the timer wheel; if it fires first the thread is interrupted and the request ends with {@code 504}
+     * whatever the handler returned or threw.
+     */
+    private Object invokeRoute(RouteDefinition route, RouteRequest request) {
+        long timeoutMillis = tuning.requestTimeoutMillis();
+        if (timeoutMillis <= 0) {
+            return route.invoke(request);
+        }
+
+        Deadline deadline = Deadline.enter(timeoutMillis);
+        TimerWheel.Timeout timeout = timerWheel.schedule(deadline::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+        Object result = null;
+        RuntimeException failure = null;
+        boolean inTime;
+        try {
+            result = route.invoke(request);
+        } catch (RuntimeException ex) {
+            failure = ex;
+        } finally {
+            timeout.cancel();
+            inTime = deadline.exit();
+        }
+        if (!inTime) {
+            throw new RequestTimeoutException("Request timed out after " + timeoutMillis + " ms");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
     }
 
-    private void writeJson(HttpExchange exchange, int statusCode, Object payload) throws IOException {
-        byte[] responseBytes = json.stringify(payload).getBytes(StandardCharsets.UTF_8);
-        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
+    private boolean hasStreamingRoutes() {
+        for (RouteDefinition route : router.getAllRoutes()) {
+            if (route.streaming()) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        try (OutputStream outputStream = exchange.getResponseBody()) {
-            outputStream.write(responseBytes);
+    private void stopTimerWheel() {
+        if (timerWheel != null) {
+            timerWheel.stop();
+            timerWheel = null;
         }
     }
 
-    private void shutdownExecutor(ThreadPoolExecutor executor) {
+    private void shutdownExecutor(ExecutorService executor) {
         if (executor == null) {
             return;
         }
@@ -2,6 +2,8 @@ package io.summerframework.core.web;
 
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
@@ -11,7 +13,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 final class TunedExecutorFactory {
 
-    ThreadPoolExecutor create(ServerTuningProperties properties, String prefix) {
+    ExecutorService create(ServerTuningProperties properties, String prefix) {
+        if (properties.executionModel() == ServerTuningProperties.ExecutionModel.VIRTUAL) {
+            return virtualThreadPerTask(prefix);
+        }
+
         BlockingQueue<Runnable> queue = properties.queueCapacity() == 0
                 ? new SynchronousQueue<>()
                 : new ArrayBlockingQueue<>(properties.queueCapacity());
@@ -29,6 +35,37 @@ final class TunedExecutorFactory {
         return executor;
     }
 
+    /**
+     * Unbounded pool for tasks that may block on slow clients for long, such as event stream writes; it never
+     * rejects and never runs a task on the submitting thread.
+     */
+    ExecutorService createStreaming(ServerTuningProperties properties, String prefix) {
+        if (properties.executionModel() == ServerTuningProperties.ExecutionModel.VIRTUAL) {
+            return virtualThreadPerTask(prefix);
+        }
+        return Executors.newCachedThreadPool(namedThreadFactory(prefix));
+    }
+
+    /**
+     * The core module still targets Java 17, so the Java 21 virtual thread API is looked up reflectively
+     * and only required when the virtual execution model is actually selected.
+     */
+    private ExecutorService virtualThreadPerTask(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix + "-", 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ClassNotFoundException | NoSuchMethodException ex) {
+            throw new IllegalStateException("Virtual thread execution model requires Java 21 or newer", ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create virtual thread executor for " + prefix, ex);
+        }
+    }
+
     private ThreadFactory namedThreadFactory(String prefix) {
         AtomicInteger counter = new AtomicInteger(1);
         return runnable -> {
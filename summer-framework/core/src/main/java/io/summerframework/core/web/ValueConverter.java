@@ -0,0 +1,125 @@
+package io.summerframework.core.web;
+
+/**
+ * Converts a decoded request value (a JSON scalar or tree, or a raw path/query/header string) to one target
+ * type. Converters are resolved once per type through {@link #forType(Class)}, so binding does not re-run
+ * the type dispatch for every value.
+ */
+@FunctionalInterface
+interface ValueConverter {
+
+    Object convert(Object value, String fieldName);
+
+    static ValueConverter forType(Class<?> targetType) {
+        return Converters.CACHE.get(targetType);
+    }
+
+    final class Converters {
+
+        private static final ClassValue<ValueConverter> CACHE = new ClassValue<>() {
+            @Override
+            protected ValueConverter computeValue(Class<?> type) {
+                return create(type);
+            }
+        };
+
+        private Converters() {
+        }
+
+        private static ValueConverter create(Class<?> targetType) {
+            ValueConverter scalar = scalar(targetType);
+            boolean primitive = targetType.isPrimitive();
+            return (value, fieldName) -> {
+                if (value == null) {
+                    if (primitive) {
+                        throw new BadRequestException("Field '" + fieldName + "' cannot be null");
+                    }
+                    return null;
+                }
+                if (targetType.isInstance(value)) {
+                    return value;
+                }
+                if (scalar != null) {
+                    return scalar.convert(value, fieldName);
+                }
+                throw new BadRequestException("Cannot bind field '" + fieldName + "' to " + targetType.getSimpleName());
+            };
+        }
+
+        private static ValueConverter scalar(Class<?> targetType) {
+            if (targetType == Integer.class || targetType == int.class) {
+                return Converters::toInteger;
+            }
+            if (targetType == Long.class || targetType == long.class) {
+                return Converters::toLong;
+            }
+            if (targetType == Double.class || targetType == double.class) {
+                return Converters::toDouble;
+            }
+            if (targetType == Boolean.class || targetType == boolean.class) {
+                return Converters::toBoolean;
+            }
+            if (targetType == String.class) {
+                return (value, fieldName) -> String.valueOf(value);
+            }
+            return null;
+        }
+
+        private static Integer toInteger(Object value, String fieldName) {
+            if (value instanceof Number number) {
+                return number.intValue();
+            }
+            if (value instanceof String text) {
+                try {
+                    return Integer.parseInt(text);
+                } catch (NumberFormatException ex) {
+                    throw new BadRequestException("Invalid integer for field '" + fieldName + "'");
+                }
+            }
+            throw new BadRequestException("Invalid integer for field '" + fieldName + "'");
+        }
+
+        private static Long toLong(Object value, String fieldName) {
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+            if (value instanceof String text) {
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException ex) {
+                    throw new BadRequestException("Invalid long for field '" + fieldName + "'");
+                }
+            }
+            throw new BadRequestException("Invalid long for field '" + fieldName + "'");
+        }
+
+        private static Double toDouble(Object value, String fieldName) {
+            if (value instanceof Number number) {
+                return number.doubleValue();
+            }
+            if (value instanceof String text) {
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException ex) {
+                    throw new BadRequestException("Invalid number for field '" + fieldName + "'");
+                }
+            }
+            throw new BadRequestException("Invalid number for field '" + fieldName + "'");
+        }
+
+        private static Boolean toBoolean(Object value, String fieldName) {
+            if (value instanceof Boolean booleanValue) {
+                return booleanValue;
+            }
+            if (value instanceof String text) {
+                if ("true".equalsIgnoreCase(text)) {
+                    return true;
+                }
+                if ("false".equalsIgnoreCase(text)) {
+                    return false;
+                }
+            }
+            throw new BadRequestException("Invalid boolean for field '" + fieldName + "'");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.summerframework.core.web.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gives a route its own concurrency limit, independent of the server-wide one. On a controller class it
+ * applies to every route of the class that does not declare its own; each route still gets separate permits.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Bulkhead {
+
+    int maxConcurrent();
+
+    /**
+     * Requests allowed to wait for a permit once all are taken; further requests are rejected with 503.
+     */
+    int queue() default 0;
+
+    /**
+     * How long a queued request may hold its HTTP thread waiting for a permit before it is rejected; the
+     * request timeout shortens it further when it is smaller.
+     */
+    long maxWaitMillis() default 500;
+
+    /**
+     * Name of an {@code Executor} bean the handler runs on instead of the HTTP thread.
+     */
+    String executor() default "";
+}
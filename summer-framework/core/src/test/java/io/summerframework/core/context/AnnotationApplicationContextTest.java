@@ -0,0 +1,85 @@
+package io.summerframework.core.context;
+
+import io.summerframework.core.context.fixture.cycle.CycleConfig;
+import io.summerframework.core.context.fixture.failing.Exploding;
+import io.summerframework.core.context.fixture.failing.FailingConfig;
+import io.summerframework.core.context.fixture.ordering.DestructionLog;
+import io.summerframework.core.context.fixture.ordering.OrderingConfig;
+import io.summerframework.core.context.fixture.ordering.Repository;
+import io.summerframework.core.context.fixture.prototype.PrototypeConfig;
+import io.summerframework.core.context.fixture.prototype.Standalone;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnnotationApplicationContextTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void detectsConstructorCycleAtRefresh(boolean parallelStartup) {
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> new AnnotationApplicationContext(parallelStartup, CycleConfig.class));
+
+        assertEquals("Circular dependency detected: alpha -> beta -> alpha", failure.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void startsWithCycleBetweenPrototypesOnly(boolean parallelStartup) {
+        try (AnnotationApplicationContext context = new AnnotationApplicationContext(parallelStartup, PrototypeConfig.class)) {
+            assertNotNull(context.getBean(Standalone.class));
+        }
+    }
+
+    @Test
+    void destroysInTheSameOrderWithParallelAndSerialStartup() {
+        DestructionLog.drain();
+        new AnnotationApplicationContext(false, OrderingConfig.class).close();
+        List<String> serial = DestructionLog.drain();
+
+        new AnnotationApplicationContext(true, OrderingConfig.class).close();
+        List<String> parallel = DestructionLog.drain();
+
+        assertEquals(List.of("Service", "Repository", "Clock", "Cache"), serial);
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void rejectsLookupsAfterCloseButKeepsTheDefinitions() {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(OrderingConfig.class);
+        context.close();
+        DestructionLog.drain();
+
+        for (Executable lookup : List.<Executable>of(
+                () -> context.getBean("repository"),
+                () -> context.getBean(Repository.class),
+                () -> context.getBeansOfType(Repository.class),
+                () -> context.getBeanProvider(Repository.class))) {
+            IllegalStateException failure = assertThrows(IllegalStateException.class, lookup);
+            assertEquals("Application context is closed", failure.getMessage());
+        }
+        assertTrue(context.containsBean("repository"));
+    }
+
+    @Test
+    void surfacesTheOriginalFailureFromParallelStartup() {
+        IllegalStateException serial = assertThrows(IllegalStateException.class,
+                () -> new AnnotationApplicationContext(false, FailingConfig.class));
+        IllegalStateException parallel = assertThrows(IllegalStateException.class,
+                () -> new AnnotationApplicationContext(true, FailingConfig.class));
+
+        assertEquals("Failed to instantiate bean class: " + Exploding.class.getName(), parallel.getMessage());
+        assertEquals(serial.getMessage(), parallel.getMessage());
+        IllegalArgumentException cause = assertInstanceOf(IllegalArgumentException.class, parallel.getCause().getCause());
+        assertEquals("boom", cause.getMessage());
+    }
+}
@@ -0,0 +1,10 @@
+package io.summerframework.core.context.fixture.cycle;
+
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Alpha {
+
+    public Alpha(Beta beta) {
+    }
+}
@@ -0,0 +1,10 @@
+package io.summerframework.core.context.fixture.failing;
+
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Dependent {
+
+    public Dependent(Exploding exploding) {
+    }
+}
@@ -0,0 +1,11 @@
+package io.summerframework.core.context.fixture.failing;
+
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Exploding {
+
+    public Exploding() {
+        throw new IllegalArgumentException("boom");
+    }
+}
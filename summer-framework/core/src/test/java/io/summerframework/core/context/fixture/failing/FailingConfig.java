@@ -0,0 +1,7 @@
+package io.summerframework.core.context.fixture.failing;
+
+import io.summerframework.core.annotation.Configuration;
+
+@Configuration
+public class FailingConfig {
+}
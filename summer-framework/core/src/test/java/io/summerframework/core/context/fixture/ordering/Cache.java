@@ -0,0 +1,7 @@
+package io.summerframework.core.context.fixture.ordering;
+
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Cache extends DestructionLog {
+}
@@ -0,0 +1,12 @@
+package io.summerframework.core.context.fixture.ordering;
+
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Clock extends DestructionLog {
+
+    public Clock() throws InterruptedException {
+        // slow enough that independent beans finish first when created in parallel
+        Thread.sleep(50);
+    }
+}
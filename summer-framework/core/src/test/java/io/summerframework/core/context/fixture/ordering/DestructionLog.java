@@ -0,0 +1,24 @@
+package io.summerframework.core.context.fixture.ordering;
+
+import io.summerframework.core.lifecycle.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public abstract class DestructionLog implements DisposableBean {
+
+    private static final List<String> DESTROYED = new ArrayList<>();
+
+    public static synchronized List<String> drain() {
+        List<String> destroyed = List.copyOf(DESTROYED);
+        DESTROYED.clear();
+        return destroyed;
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (DestructionLog.class) {
+            DESTROYED.add(getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.summerframework.core.context.fixture.ordering;
+
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Repository extends DestructionLog {
+
+    public Repository(Clock clock) {
+    }
+}
@@ -0,0 +1,14 @@
+package io.summerframework.core.context.fixture.ordering;
+
+import io.summerframework.core.annotation.Autowired;
+import io.summerframework.core.annotation.Component;
+
+@Component
+public class Service extends DestructionLog {
+
+    @Autowired
+    private Cache cache;
+
+    public Service(Repository repository) {
+    }
+}
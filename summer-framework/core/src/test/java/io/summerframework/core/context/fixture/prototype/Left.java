@@ -0,0 +1,12 @@
+package io.summerframework.core.context.fixture.prototype;
+
+import io.summerframework.core.annotation.Component;
+import io.summerframework.core.annotation.Scope;
+
+@Component
+@Scope("prototype")
+public class Left {
+
+    public Left(Right right) {
+    }
+}
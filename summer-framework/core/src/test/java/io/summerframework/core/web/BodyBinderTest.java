@@ -0,0 +1,175 @@
+package io.summerframework.core.web;
+
+import com.sun.net.httpserver.Headers;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BodyBinderTest {
+
+    private final BodyBinder binder = new BodyBinder();
+
+    record Address(String city, int zip) {
+    }
+
+    record Customer(String name, Address address, Preferences preferences, List<Object> tags, Map<String, Object> extra,
+                    long id, boolean active) {
+    }
+
+    static class Preferences {
+        String language;
+        int pageSize;
+        Address billing;
+    }
+
+    static class Account {
+        String owner;
+    }
+
+    static class AdminAccount extends Account {
+        int level;
+    }
+
+    static class Shadowing extends Account {
+        String owner;
+        Address billing;
+    }
+
+    static class ShadowingTwice extends Shadowing {
+        String owner;
+    }
+
+    abstract static class Shape {
+        int sides;
+    }
+
+    static class ThirdPartyFields {
+        String name;
+        Headers headers;
+        Shape shape;
+    }
+
+    static class NoDefaultConstructor {
+        NoDefaultConstructor(String value) {
+        }
+    }
+
+    @Test
+    void bindsNestedRecordsAndPojos() {
+        Customer customer = bind("""
+                {"name": "Ada \\u00c7elik", "id": 9223372036854775807, "active": true,
+                 "address": {"city": "Izmir", "zip": 35000},
+                 "preferences": {"language": "tr", "pageSize": 50, "billing": {"zip": 6000, "city": "Ankara"}},
+                 "tags": ["a", 1, {"k": "v"}], "extra": {"nested": [true]}}""", Customer.class);
+
+        assertEquals("Ada Çelik", customer.name());
+        assertEquals(Long.MAX_VALUE, customer.id());
+        assertTrue(customer.active());
+        assertEquals(new Address("Izmir", 35000), customer.address());
+        assertEquals("tr", customer.preferences().language);
+        assertEquals(50, customer.preferences().pageSize);
+        assertEquals(new Address("Ankara", 6000), customer.preferences().billing);
+        assertEquals(List.of("a", 1L, Map.of("k", "v")), customer.tags());
+        assertEquals(Map.of("nested", List.of(true)), customer.extra());
+    }
+
+    @Test
+    void bindsInheritedPojoFields() {
+        AdminAccount account = bind("{\"owner\": \"root\", \"level\": 3}", AdminAccount.class);
+
+        assertEquals("root", account.owner);
+        assertEquals(3, account.level);
+    }
+
+    @Test
+    void setsEveryShadowedFieldOfTheSameName() {
+        ShadowingTwice value = bind("{\"owner\": \"root\", \"level\": 1}", ShadowingTwice.class);
+
+        assertEquals("root", value.owner);
+        assertEquals("root", ((Shadowing) value).owner);
+        assertEquals("root", ((Account) value).owner);
+    }
+
+    @Test
+    void treatsEncapsulatedAndAbstractTypesAsLeafValues() {
+        assertDoesNotThrow(() -> binder.prepare(ThirdPartyFields.class));
+
+        ThirdPartyFields value = bind("{\"name\": \"n\", \"headers\": null, \"shape\": null}", ThirdPartyFields.class);
+        assertEquals("n", value.name);
+        BadRequestException failure = assertThrows(BadRequestException.class,
+                () -> bind("{\"shape\": {\"sides\": 3}}", ThirdPartyFields.class));
+        assertEquals("Cannot bind field 'shape' to Shape", failure.getMessage());
+    }
+
+    @Test
+    void skipsUnknownFieldsAndLeavesMissingOnesEmpty() {
+        Customer customer = bind("{\"unknown\": {\"deep\": [1, {\"x\": \"}\"}]}, \"name\": \"n\", \"address\": null,"
+                + " \"id\": 1, \"active\": false}", Customer.class);
+
+        assertEquals("n", customer.name());
+        assertNull(customer.address());
+        assertNull(customer.preferences());
+        assertNull(customer.tags());
+    }
+
+    @Test
+    void rejectsMissingPrimitiveValues() {
+        BadRequestException failure = assertThrows(BadRequestException.class,
+                () -> bind("{\"city\": \"Izmir\"}", Address.class));
+
+        assertEquals("Field 'zip' cannot be null", failure.getMessage());
+    }
+
+    @Test
+    void rejectsMismatchedValueTypes() {
+        BadRequestException failure = assertThrows(BadRequestException.class,
+                () -> bind("{\"city\": \"Izmir\", \"zip\": \"abc\"}", Address.class));
+
+        assertEquals("Invalid integer for field 'zip'", failure.getMessage());
+        assertThrows(BadRequestException.class, () -> bind("{\"address\": [1]}", Customer.class));
+    }
+
+    @Test
+    void rejectsTruncatedAndTrailingInput() {
+        assertThrows(BadRequestException.class, () -> bind("{\"city\": \"Izmir\", \"zip\": 1", Address.class));
+        assertThrows(BadRequestException.class, () -> bind("{\"city\": \"Izm", Address.class));
+        assertThrows(BadRequestException.class, () -> bind("{\"city\": \"Izmir\", \"zip\": 1} {}", Address.class));
+        assertThrows(BadRequestException.class, () -> bind("{\"city\": \"Izmir\", \"zip\": 1}x", Address.class));
+    }
+
+    @Test
+    void bindsBlankBodiesAndPlainValues() {
+        assertNull(bind("  ", Address.class));
+        assertEquals("raw {not json", bind("raw {not json", String.class));
+        assertEquals(42, (int) bind("42", int.class));
+        assertEquals(List.of(1L, 2L), bind("[1, 2]", List.class));
+    }
+
+    @Test
+    void requiresNoArgConstructorForPojos() {
+        BadRequestException failure = assertThrows(BadRequestException.class,
+                () -> bind("{}", NoDefaultConstructor.class));
+
+        assertEquals("Type NoDefaultConstructor must have a no-arg constructor", failure.getMessage());
+    }
+
+    @Test
+    void preparesNestedTypesUpFront() {
+        binder.prepare(Customer.class);
+
+        assertEquals(new Address("Izmir", 1), bind("{\"city\": \"Izmir\", \"zip\": 1}", Address.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T bind(String json, Class<T> type) {
+        return (T) binder.bind(json.getBytes(StandardCharsets.UTF_8), type);
+    }
+}
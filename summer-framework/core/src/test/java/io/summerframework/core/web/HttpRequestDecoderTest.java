@@ -0,0 +1,237 @@
+package io.summerframework.core.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpRequestDecoderTest {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    @Test
+    void decodesRequestLineHeadersAndBody() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+
+        HttpRequestDecoder.DecodedRequest request = decoder.decode(ascii("POST /api/users?verbose=true HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "X-Tag: a\r\n"
+                + "x-tag: b\r\n"
+                + "Content-Length: 5\r\n"
+                + "\r\n"
+                + "hello"));
+
+        assertNotNull(request);
+        assertEquals("POST", request.method());
+        assertEquals("/api/users", request.path());
+        assertEquals("verbose=true", request.rawQuery());
+        assertEquals(List.of("a", "b"), request.headers().get("x-tag"));
+        assertEquals("hello", text(request.body()));
+        assertTrue(request.keepAlive());
+        assertTrue(request.http11());
+    }
+
+    @Test
+    void completesOnlyOnceTheLastByteArrives() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+        byte[] bytes = ("PUT /items/7 HTTP/1.1\r\nContent-Length: 11\r\n\r\nhello world").getBytes(StandardCharsets.US_ASCII);
+
+        for (int i = 0; i < bytes.length - 1; i++) {
+            assertNull(decoder.decode(ByteBuffer.wrap(bytes, i, 1)), "completed early at byte " + i);
+        }
+        HttpRequestDecoder.DecodedRequest request = decoder.decode(ByteBuffer.wrap(bytes, bytes.length - 1, 1));
+
+        assertNotNull(request);
+        assertEquals("/items/7", request.path());
+        assertEquals("hello world", text(request.body()));
+    }
+
+    @Test
+    void growsTheBodyBufferBeyondItsInitialSize() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+        byte[] body = new byte[40 * 1024];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+
+        assertNull(decoder.decode(ascii("POST /upload HTTP/1.1\r\nContent-Length: " + body.length + "\r\n\r\n")));
+        HttpRequestDecoder.DecodedRequest request = null;
+        for (int offset = 0; offset < body.length; offset += 1000) {
+            request = decoder.decode(ByteBuffer.wrap(body, offset, Math.min(1000, body.length - offset)));
+        }
+
+        assertNotNull(request);
+        assertArrayEquals(body, request.body());
+    }
+
+    @Test
+    void decodesChunkedBodyWithExtensionsAndTrailers() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+
+        HttpRequestDecoder.DecodedRequest request = decoder.decode(ascii("POST /chunks HTTP/1.1\r\n"
+                + "Transfer-Encoding: chunked\r\n"
+                + "\r\n"
+                + "4;name=value\r\n"
+                + "Wiki\r\n"
+                + "A\r\n"
+                + "pedia is a\r\n"
+                + "0\r\n"
+                + "X-Checksum: 42\r\n"
+                + "\r\n"));
+
+        assertNotNull(request);
+        assertEquals("Wikipedia is a", text(request.body()));
+    }
+
+    @Test
+    void decodesChunkedBodySplitAcrossReads() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+        byte[] bytes = ("POST /chunks HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "3\r\nabc\r\n2;x\r\nde\r\n0\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        HttpRequestDecoder.DecodedRequest request = null;
+        for (int i = 0; i < bytes.length; i++) {
+            assertNull(request, "completed early at byte " + i);
+            request = decoder.decode(ByteBuffer.wrap(bytes, i, 1));
+        }
+
+        assertNotNull(request);
+        assertEquals("abcde", text(request.body()));
+    }
+
+    @Test
+    void rejectsMalformedChunks() {
+        assertStatus(400, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n3\r\nabcX\r\n");
+    }
+
+    @Test
+    void rejectsOversizedHeaderWith431() {
+        String header = "X-Large: " + "a".repeat(HttpRequestDecoder.MAX_HEADER_BYTES) + "\r\n";
+
+        assertStatus(431, "GET / HTTP/1.1\r\n" + header + "\r\n");
+    }
+
+    @Test
+    void rejectsTooManyHeaderBytesWith431() {
+        StringBuilder head = new StringBuilder("GET / HTTP/1.1\r\n");
+        for (int i = 0; head.length() <= HttpRequestDecoder.MAX_HEADER_BYTES; i++) {
+            head.append("X-Header-").append(i).append(": ").append("v".repeat(100)).append("\r\n");
+        }
+
+        assertStatus(431, head.append("\r\n").toString());
+    }
+
+    @Test
+    void rejectsOversizedContentLengthWith413BeforeReadingTheBody() {
+        assertStatus(413, "POST / HTTP/1.1\r\nContent-Length: " + (MAX_BODY_BYTES + 1) + "\r\n\r\n");
+        assertStatus(413, "POST / HTTP/1.1\r\nContent-Length: 2000000000000\r\n\r\n");
+    }
+
+    @Test
+    void rejectsChunksAddingUpToMoreThanTheLimitWith413() {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(8);
+
+        HttpRequestDecoder.DecodeException failure = assertThrows(HttpRequestDecoder.DecodeException.class,
+                () -> decoder.decode(ascii("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                        + "5\r\nabcde\r\n5\r\n")));
+
+        assertEquals(413, failure.status());
+    }
+
+    @Test
+    void rejectsInvalidFraming() {
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 3\r\nTransfer-Encoding: chunked\r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: abc\r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: -1\r\n\r\n");
+        assertStatus(501, "POST / HTTP/1.1\r\nTransfer-Encoding: gzip\r\n\r\n");
+        assertStatus(400, "GET\r\n");
+        assertStatus(505, "GET / HTTP/2.0\r\n");
+        assertStatus(400, "GET / HTTP/1.1\r\nno-separator\r\n");
+    }
+
+    @Test
+    void reportsExpectContinueOncePerRequest() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+
+        assertNull(decoder.decode(ascii("POST /upload HTTP/1.1\r\n"
+                + "Expect: 100-continue\r\n"
+                + "Content-Length: 4\r\n"
+                + "\r\n")));
+        assertTrue(decoder.takeContinueRequest());
+        assertFalse(decoder.takeContinueRequest());
+
+        HttpRequestDecoder.DecodedRequest request = decoder.decode(ascii("data"));
+        assertNotNull(request);
+        assertEquals("data", text(request.body()));
+    }
+
+    @Test
+    void ignoresExpectContinueWithoutBody() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+
+        assertNotNull(decoder.decode(ascii("GET / HTTP/1.1\r\nExpect: 100-continue\r\n\r\n")));
+        assertFalse(decoder.takeContinueRequest());
+    }
+
+    @Test
+    void leavesPipelinedRequestsInTheBuffer() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+        ByteBuffer in = ascii("POST /first HTTP/1.1\r\nContent-Length: 3\r\n\r\none"
+                + "GET /second HTTP/1.1\r\n\r\n"
+                + "POST /third HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n3\r\nsix\r\n0\r\n\r\n"
+                + "GET /fou");
+
+        HttpRequestDecoder.DecodedRequest first = decoder.decode(in);
+        assertEquals("/first", first.path());
+        assertEquals("one", text(first.body()));
+        assertTrue(in.hasRemaining());
+
+        HttpRequestDecoder.DecodedRequest second = decoder.decode(in);
+        assertEquals("/second", second.path());
+        assertEquals(0, second.body().length);
+
+        HttpRequestDecoder.DecodedRequest third = decoder.decode(in);
+        assertEquals("/third", third.path());
+        assertEquals("six", text(third.body()));
+
+        assertNull(decoder.decode(in));
+        HttpRequestDecoder.DecodedRequest fourth = decoder.decode(ascii("rth HTTP/1.1\r\n\r\n"));
+        assertEquals("/fourth", fourth.path());
+    }
+
+    @Test
+    void appliesConnectionSemanticsPerVersion() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+
+        assertFalse(decoder.decode(ascii("GET / HTTP/1.1\r\nConnection: close\r\n\r\n")).keepAlive());
+        assertFalse(decoder.decode(ascii("GET / HTTP/1.0\r\n\r\n")).keepAlive());
+        assertTrue(decoder.decode(ascii("GET / HTTP/1.0\r\nConnection: keep-alive\r\n\r\n")).keepAlive());
+    }
+
+    private static void assertStatus(int status, String input) {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(MAX_BODY_BYTES);
+
+        HttpRequestDecoder.DecodeException failure = assertThrows(HttpRequestDecoder.DecodeException.class,
+                () -> decoder.decode(ascii(input)));
+
+        assertEquals(status, failure.status(), failure.getMessage());
+    }
+
+    private static ByteBuffer ascii(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
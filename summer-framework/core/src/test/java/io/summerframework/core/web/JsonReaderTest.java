@@ -0,0 +1,143 @@
+package io.summerframework.core.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonReaderTest {
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("quote\" backslash\\ slash/ \b\f\n\r\t end", read("\"quote\\\" backslash\\\\ slash\\/ \\b\\f\\n\\r\\t end\""));
+        assertEquals("\u00e9\u0000A", read("\"\\u00E9\\u0000\\u0041\""));
+    }
+
+    @Test
+    void decodesSurrogatePairsFromEscapesAndRawBytes() {
+        String grinning = new String(Character.toChars(0x1F600));
+
+        assertEquals(grinning, read("\"\\ud83d\\ude00\""));
+        assertEquals("a" + grinning + "b", read("\"a\\uD83D\\uDE00b\""));
+        assertEquals("\u00e7" + grinning + " \u0131", read("\"\u00e7" + grinning + " \u0131\""));
+        assertEquals("x" + grinning + "\n", read("\"x" + grinning + "\\n\""));
+    }
+
+    @Test
+    void readsNumbersAtTheEdges() {
+        assertEquals(0L, read("0"));
+        assertEquals(0L, read("-0"));
+        assertEquals(-0.0d, read("-0.0"));
+        assertEquals(1000.0d, read("1e3"));
+        assertEquals(0.0015d, read("1.5E-3"));
+        assertEquals(-250.0d, read("-2.5e+2"));
+        assertEquals(123456789012345678L, read("123456789012345678"));
+        assertEquals(Long.MAX_VALUE, read("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, read("-9223372036854775808"));
+        assertEquals(1.0E300d, read("1e300"));
+    }
+
+    @Test
+    void rejectsIntegersBeyondLong() {
+        BadRequestException failure = assertThrows(BadRequestException.class, () -> read("9223372036854775808"));
+
+        assertTrue(failure.getMessage().startsWith("Invalid number: 9223372036854775808"), failure.getMessage());
+        assertThrows(BadRequestException.class, () -> read("-9223372036854775809"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-", "1.", "1e", "1e+", ".5", "+1", "--1"})
+    void rejectsMalformedNumbers(String input) {
+        assertThrows(BadRequestException.class, () -> read(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "{", "{\"a\"", "{\"a\":", "{\"a\":1", "{\"a\":1,", "[1,", "[", "\"abc", "\"ab\\",
+            "\"\\u12", "tru", "nul", "{\"a\":[1,{\"b\":"})
+    void rejectsTruncatedInput(String input) {
+        assertThrows(BadRequestException.class, () -> read(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{} x", "[1] ]", "1 2", "\"a\"\"b\"", "null,", "{\"a\":1}}", "truex"})
+    void rejectsTrailingGarbage(String input) {
+        assertThrows(BadRequestException.class, () -> read(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"a\" 1}", "{a:1}", "[1 2]", "{\"a\":1 \"b\":2}", "\"\\x\"", "\"\\u12G4\"", "nulL"})
+    void rejectsMalformedInput(String input) {
+        assertThrows(BadRequestException.class, () -> read(input));
+    }
+
+    @Test
+    void readsNestedTreesInDocumentOrder() {
+        Object value = read(" {\"b\": [1, 2.5, true, null, {\"c\": \"d\"}], \"a\": {}, \"e\": []} ");
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        Map<String, Object> inner = new LinkedHashMap<>();
+        inner.put("c", "d");
+        expected.put("b", Arrays.asList(1L, 2.5d, true, null, inner));
+        expected.put("a", Map.of());
+        expected.put("e", List.of());
+        assertEquals(expected, value);
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(((Map<?, ?>) value).keySet()));
+    }
+
+    @Test
+    void roundTripsWhatJsonWrites() {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("text", "line\nbreak \"quoted\" back\\slash \u0001 tab\t " + new String(Character.toChars(0x1F600)));
+        document.put("number", Long.MIN_VALUE);
+        document.put("decimal", -1.25e-7d);
+        document.put("flags", List.of(true, false));
+        document.put("nested", Map.of("empty", List.of()));
+        document.put("nothing", null);
+
+        assertEquals(document, read(new Json().stringify(document)));
+    }
+
+    @Test
+    void skipsUnknownValuesOfEveryShape() {
+        JsonReader reader = reader("{\"skip\": {\"s\": \"}\\\"]\", \"n\": [1, [2, {}], -3e2]}, \"keep\": 7}");
+        byte[][] names = {"keep".getBytes(StandardCharsets.UTF_8)};
+
+        reader.beginObject();
+        assertEquals(JsonReader.NO_FIELD, reader.nextField(names, true));
+        reader.skipValue();
+        assertEquals(0, reader.nextField(names, false));
+        assertEquals(7L, reader.readValue());
+        assertEquals(JsonReader.END_OBJECT, reader.nextField(names, false));
+        reader.endDocument();
+    }
+
+    @Test
+    void matchesEscapedFieldNames() {
+        JsonReader reader = reader("{\"n\\u0061me\": \"x\"}");
+        byte[][] names = {"name".getBytes(StandardCharsets.UTF_8)};
+
+        reader.beginObject();
+        assertEquals(0, reader.nextField(names, true));
+        assertEquals("x", reader.readValue());
+    }
+
+    private static Object read(String json) {
+        JsonReader reader = reader(json);
+        Object value = reader.readValue();
+        reader.endDocument();
+        return value;
+    }
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
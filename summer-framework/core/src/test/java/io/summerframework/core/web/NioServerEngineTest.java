@@ -0,0 +1,138 @@
+package io.summerframework.core.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NioServerEngineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private NioServerEngine engine;
+    private int port;
+
+    @AfterEach
+    void stop() {
+        if (engine != null) {
+            engine.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    void answersPipelinedRequestsInOrderOnOneConnection() throws Exception {
+        start(ServerTuningProperties.builder().engine(ServerTuningProperties.Engine.NIO).build());
+
+        try (Socket socket = connect()) {
+            write(socket, "POST /first HTTP/1.1\r\nContent-Length: 3\r\n\r\none"
+                    + "GET /second HTTP/1.1\r\n\r\n"
+                    + "POST /third HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n2;ext\r\nsi\r\n1\r\nx\r\n0\r\n\r\n");
+
+            InputStream in = socket.getInputStream();
+            assertEquals(new Response(200, "POST /first one"), Response.read(in));
+            assertEquals(new Response(200, "GET /second "), Response.read(in));
+            assertEquals(new Response(200, "POST /third six"), Response.read(in));
+        }
+    }
+
+    @Test
+    void sendsContinueBeforeTheClientSendsTheBody() throws Exception {
+        start(ServerTuningProperties.builder().engine(ServerTuningProperties.Engine.NIO).build());
+
+        try (Socket socket = connect()) {
+            write(socket, "PUT /upload HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 4\r\n\r\n");
+            InputStream in = socket.getInputStream();
+            assertEquals(new Response(100, ""), Response.read(in));
+
+            write(socket, "data");
+            assertEquals(new Response(200, "PUT /upload data"), Response.read(in));
+        }
+    }
+
+    @Test
+    void rejectsOversizedBodyWith413() throws Exception {
+        start(ServerTuningProperties.builder()
+                .engine(ServerTuningProperties.Engine.NIO)
+                .maxRequestBodyBytes(16)
+                .build());
+
+        try (Socket socket = connect()) {
+            write(socket, "POST /upload HTTP/1.1\r\nContent-Length: 17\r\n\r\n");
+
+            assertEquals(413, Response.read(socket.getInputStream()).status());
+        }
+    }
+
+    private void start(ServerTuningProperties tuning) throws IOException {
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = probe.getLocalPort();
+        }
+        engine = new NioServerEngine();
+        engine.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), tuning, executor, exchange -> {
+            byte[] body = exchange.readRequestBody(1024);
+            byte[] reply = (exchange.requestMethod() + " " + exchange.requestPath() + " "
+                    + new String(body, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, reply.length);
+            try (OutputStream out = exchange.responseBody()) {
+                out.write(reply);
+            }
+        });
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static void write(Socket socket, String data) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(data.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private record Response(int status, String body) {
+
+        static Response read(InputStream in) throws IOException {
+            String statusLine = readLine(in);
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+                int separator = line.indexOf(':');
+                headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        line.substring(separator + 1).trim());
+            }
+            int status = Integer.parseInt(statusLine.split(" ")[1]);
+            String contentLength = headers.get("content-length");
+            byte[] body = contentLength == null ? new byte[0] : in.readNBytes(Integer.parseInt(contentLength));
+            return new Response(status, new String(body, StandardCharsets.UTF_8));
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            for (int next = in.read(); next != '\n'; next = in.read()) {
+                if (next < 0) {
+                    throw new IOException("Connection closed mid-response");
+                }
+                if (next != '\r') {
+                    line.write(next);
+                }
+            }
+            return line.toString(StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.summerframework.example;
 
+import io.summerframework.core.web.annotation.Bulkhead;
 import io.summerframework.core.web.annotation.GetMapping;
 import io.summerframework.core.web.annotation.DeleteMapping;
 import io.summerframework.core.web.annotation.PathVariable;
@@ -12,9 +13,13 @@ import io.summerframework.core.web.annotation.RequestMapping;
 import io.summerframework.core.web.annotation.RequestParam;
 import io.summerframework.core.web.annotation.RestController;
 import io.summerframework.core.web.RestResponse;
+import io.summerframework.core.web.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
@@ -43,6 +48,7 @@ public class UserController {
     }
 
     @GetMapping("/slow")
+    @Bulkhead(maxConcurrent = 2, queue = 2)
     public Map<String, Object> slow() {
         try {
             Thread.sleep(1500);
@@ -53,6 +59,28 @@ public class UserController {
         return Map.of("result", "slow-ok");
     }
 
+    @GetMapping("/slow-async")
+    public CompletableFuture<Map<String, Object>> slowAsync() {
+        Executor delayed = CompletableFuture.delayedExecutor(1500, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> Map.of("result", "slow-async-ok"), delayed);
+    }
+
+    @GetMapping("/clock/stream")
+    public SseEmitter clockStream() {
+        SseEmitter emitter = new SseEmitter();
+        for (int second = 1; second <= 5; second++) {
+            boolean last = second == 5;
+            Executor delayed = CompletableFuture.delayedExecutor(second, TimeUnit.SECONDS);
+            CompletableFuture.runAsync(() -> {
+                emitter.send("tick", Map.of("time", clockService.now().toString()));
+                if (last) {
+                    emitter.complete();
+                }
+            }, delayed);
+        }
+        return emitter;
+    }
+
     @GetMapping("/users/{id}")
     public Map<String, Object> getUser(@PathVariable("id") long id,
                                        @RequestParam(value = "verbose", required = false, defaultValue = "false") boolean verbose) {
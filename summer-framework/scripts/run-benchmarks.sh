@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Builds the JMH uber jar and writes machine-readable results to benchmarks/results/<label>.json.
+# Usage: scripts/run-benchmarks.sh [label] [extra JMH args...]
+#   scripts/run-benchmarks.sh 0.1.1
+#   scripts/run-benchmarks.sh router-only RouterBenchmark -p routes=1000
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+LABEL="${1:-$(git -C "$ROOT_DIR" rev-parse --short HEAD 2>/dev/null || echo local)}"
+shift || true
+RESULTS_DIR="$ROOT_DIR/benchmarks/results"
+RESULT_PATH="$RESULTS_DIR/$LABEL.json"
+
+(cd "$ROOT_DIR" && mvn -B -q -pl benchmarks -am -DskipTests package)
+mkdir -p "$RESULTS_DIR"
+
+java -jar "$ROOT_DIR/benchmarks/target/benchmarks.jar" -rf json -rff "$RESULT_PATH" "$@"
+
+echo "Results: $RESULT_PATH"